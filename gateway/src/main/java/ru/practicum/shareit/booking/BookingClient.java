@@ -1,5 +1,7 @@
 package ru.practicum.shareit.booking;
 
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -31,19 +33,49 @@ public class BookingClient extends BaseClient {
         return post("", bookerId, bookingDto);
     }
 
+    public ResponseEntity<Object> createAll(Long bookerId, List<BookingDto> bookingDtos) {
+        return post("/batch", bookerId, bookingDtos);
+    }
+
     public ResponseEntity<Object> findById(Long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getBookings(long userId, String state) {
-        Map<String, Object> parameters = Map.of(
-                "state", state
-        );
-        return get("?state={state}", userId, parameters);
+    public ResponseEntity<Object> getBookings(long userId, String state, String cursor, Integer size) {
+        return getPage("", userId, state, cursor, size);
+    }
+
+    public ResponseEntity<Object> getOwnerBookings(long userId, String state, String cursor, Integer size) {
+        return getPage("/owner", userId, state, cursor, size);
+    }
+
+    public ResponseEntity<Object> getStats(long userId) {
+        return get("/stats", userId);
+    }
+
+    public ResponseEntity<Object> getOwnerStats(long userId) {
+        return get("/owner/stats", userId);
     }
 
     public ResponseEntity<Object> updateStatus(Long ownerId, Long bookingId, Boolean approved) {
         Map<String, Object> parameters = Map.of("approved", approved);
         return patch("/" + bookingId + "?approved={approved}", ownerId, parameters, null);
     }
+
+    public ResponseEntity<Object> updateStatuses(Long ownerId, List<Long> bookingIds, Boolean approved) {
+        Map<String, Object> parameters = Map.of("approved", approved);
+        return patch("/batch?approved={approved}", ownerId, parameters, bookingIds);
+    }
+
+    private ResponseEntity<Object> getPage(String path, long userId, String state, String cursor, Integer size) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("state", state);
+        parameters.put("size", size);
+
+        if (cursor == null) {
+            return get(path + "?state={state}&size={size}", userId, parameters);
+        }
+        parameters.put("cursor", cursor);
+        return get(path + "?state={state}&size={size}&cursor={cursor}", userId, parameters);
+    }
 }
@@ -1,9 +1,12 @@
 package ru.practicum.shareit.booking;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -12,6 +15,11 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookingDto;
 
+import java.util.List;
+
+import static ru.practicum.shareit.util.Constants.DEFAULT_PAGE_SIZE;
+import static ru.practicum.shareit.util.Constants.MAX_BATCH_SIZE;
+import static ru.practicum.shareit.util.Constants.MAX_PAGE_SIZE;
 import static ru.practicum.shareit.util.Constants.STATE_REGEX;
 import static ru.practicum.shareit.util.Constants.USER_HEADER;
 
@@ -32,6 +40,14 @@ public class BookingController {
 		return bookingClient.create(userId, bookingDto);
 	}
 
+	@PostMapping("/batch")
+	public ResponseEntity<Object> createAll(@Positive @RequestHeader(USER_HEADER) Long userId,
+											@NotEmpty @Size(max = MAX_BATCH_SIZE)
+											@RequestBody List<@NotNull BookingDto> bookingDtos) {
+		log.trace("Batch booking of {} items is started", bookingDtos.size());
+		return bookingClient.createAll(userId, bookingDtos);
+	}
+
 	@GetMapping("/{bookingId}")
 	public ResponseEntity<Object> read(@Positive @RequestHeader(USER_HEADER) Long userId,
 									   @Positive @PathVariable Long bookingId) {
@@ -42,18 +58,45 @@ public class BookingController {
 	@GetMapping
 	public ResponseEntity<Object> readUserBookings(@Positive @RequestHeader(USER_HEADER) Long userId,
 												   @Valid @Pattern(regexp = STATE_REGEX)
-												   @RequestParam(defaultValue = "ALL") String state) {
+												   @RequestParam(defaultValue = "ALL") String state,
+												   @RequestParam(required = false) String cursor,
+												   @Positive @Max(MAX_PAGE_SIZE)
+												   @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) Integer size) {
 		log.trace("Getting collection of bookings for user-owner with id: {} is started. State is: {}", userId, state);
-		return bookingClient.getBookings(userId, state);
+		return bookingClient.getBookings(userId, state, cursor, size);
 	}
 
 	@GetMapping("/owner")
 	public ResponseEntity<Object> readUserAsOwnerBookings(@Positive @RequestHeader(USER_HEADER) Long userId,
 														  @Valid @Pattern(regexp = STATE_REGEX)
-														  @RequestParam(defaultValue = "ALL") String state) {
+														  @RequestParam(defaultValue = "ALL") String state,
+														  @RequestParam(required = false) String cursor,
+														  @Positive @Max(MAX_PAGE_SIZE)
+														  @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) Integer size) {
 		log.trace("Getting collection of bookings for user-booker with id: {} is started. State is: {}",
 				userId, state);
-		return bookingClient.getBookings(userId, state);
+		return bookingClient.getOwnerBookings(userId, state, cursor, size);
+	}
+
+	@GetMapping("/stats")
+	public ResponseEntity<Object> readUserBookingStats(@Positive @RequestHeader(USER_HEADER) Long userId) {
+		log.trace("Counting bookings by state for user-booker with id: {} is started", userId);
+		return bookingClient.getStats(userId);
+	}
+
+	@GetMapping("/owner/stats")
+	public ResponseEntity<Object> readUserAsOwnerBookingStats(@Positive @RequestHeader(USER_HEADER) Long userId) {
+		log.trace("Counting bookings by state for user-owner with id: {} is started", userId);
+		return bookingClient.getOwnerStats(userId);
+	}
+
+	@PatchMapping("/batch")
+	public ResponseEntity<Object> updateStatuses(@Positive @RequestHeader(USER_HEADER) Long userId,
+												 @NotNull @RequestParam Boolean approved,
+												 @NotEmpty @Size(max = MAX_BATCH_SIZE)
+												 @RequestBody List<@NotNull @Positive Long> bookingIds) {
+		log.trace("Start of updating status of {} bookings (userId: {})", bookingIds.size(), userId);
+		return bookingClient.updateStatuses(userId, bookingIds, approved);
 	}
 
 	@PatchMapping("/{bookingId}")
@@ -1,14 +1,18 @@
 package ru.practicum.shareit.client;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Map;
 
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
 
@@ -79,6 +83,30 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
+    protected void stream(String path, Long userId, MediaType mediaType, HttpServletResponse target) {
+        try {
+            rest.execute(path, HttpMethod.GET, request -> {
+                request.getHeaders().setAccept(List.of(mediaType, MediaType.APPLICATION_JSON));
+                if (userId != null) {
+                    request.getHeaders().set("X-Sharer-User-Id", String.valueOf(userId));
+                }
+            }, response -> {
+                target.setStatus(response.getStatusCode().value());
+                target.setContentType(mediaType.toString());
+                StreamUtils.copy(response.getBody(), target.getOutputStream());
+                return null;
+            });
+        } catch (HttpStatusCodeException e) {
+            target.setStatus(e.getStatusCode().value());
+            target.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            try {
+                target.getOutputStream().write(e.getResponseBodyAsByteArray());
+            } catch (IOException ioException) {
+                throw new UncheckedIOException(ioException);
+            }
+        }
+    }
+
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
         HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
 
@@ -1,8 +1,10 @@
 package ru.practicum.shareit.item;
 
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
@@ -11,6 +13,8 @@ import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
@@ -40,8 +44,27 @@ public class ItemClient extends BaseClient {
         return get("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> findForTheUser(Long userId) {
-        return get("", userId);
+    public ResponseEntity<Object> findForTheUser(Long userId, String cursor, Integer size) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("size", size);
+
+        if (cursor == null) {
+            return get("?size={size}", userId, parameters);
+        }
+        parameters.put("cursor", cursor);
+        return get("?size={size}&cursor={cursor}", userId, parameters);
+    }
+
+    public void streamForTheUser(Long userId, HttpServletResponse response) {
+        stream("/stream", userId, MediaType.APPLICATION_NDJSON, response);
+    }
+
+    public ResponseEntity<Object> findAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
+        );
+        return get("/" + itemId + "/availability?from={from}&to={to}", null, parameters);
     }
 
     public ResponseEntity<Object> update(Long userId, Long itemId, ItemDto itemDto) {
@@ -52,8 +75,15 @@ public class ItemClient extends BaseClient {
         return delete("/" + id);
     }
 
-    public ResponseEntity<Object> search(String text) {
-        Map<String, Object> parameters = Map.of("text", text);
-        return get("/search?text={text}", null, parameters);
+    public ResponseEntity<Object> search(String text, String cursor, Integer size) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("text", text);
+        parameters.put("size", size);
+
+        if (cursor == null) {
+            return get("/search?text={text}&size={size}", null, parameters);
+        }
+        parameters.put("cursor", cursor);
+        return get("/search?text={text}&size={size}&cursor={cursor}", null, parameters);
     }
 }
@@ -1,10 +1,14 @@
 package ru.practicum.shareit.item;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -13,6 +17,10 @@ import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.validation.CreateItemValidation;
 import ru.practicum.shareit.item.validation.PatchItemValidation;
 
+import java.time.LocalDateTime;
+
+import static ru.practicum.shareit.util.Constants.DEFAULT_PAGE_SIZE;
+import static ru.practicum.shareit.util.Constants.MAX_PAGE_SIZE;
 import static ru.practicum.shareit.util.Constants.USER_HEADER;
 
 @Slf4j
@@ -48,9 +56,30 @@ public class ItemController {
     }
 
     @GetMapping
-    public ResponseEntity<Object> readForTheUser(@Positive @RequestHeader(USER_HEADER) Long userId) {
+    public ResponseEntity<Object> readForTheUser(@Positive @RequestHeader(USER_HEADER) Long userId,
+                                                 @RequestParam(required = false) String cursor,
+                                                 @Positive @Max(MAX_PAGE_SIZE)
+                                                 @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) Integer size) {
         log.trace("Getting items for user with id: {} is started", userId);
-        return itemClient.findForTheUser(userId);
+        return itemClient.findForTheUser(userId, cursor, size);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamForTheUser(@Positive @RequestHeader(USER_HEADER) Long userId, HttpServletResponse response) {
+        log.trace("Streaming items for user with id: {} is started", userId);
+        itemClient.streamForTheUser(userId, response);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<Object> readAvailability(@Positive @PathVariable Long itemId,
+                                                   @RequestParam
+                                                   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                   LocalDateTime from,
+                                                   @RequestParam
+                                                   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                   LocalDateTime to) {
+        log.trace("Getting availability of item with id: {} from {} to {} is started", itemId, from, to);
+        return itemClient.findAvailability(itemId, from, to);
     }
 
     @PatchMapping("/{itemId}")
@@ -68,8 +97,11 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> search(@RequestParam String text) {
+    public ResponseEntity<Object> search(@RequestParam String text,
+                                         @RequestParam(required = false) String cursor,
+                                         @Positive @Max(MAX_PAGE_SIZE)
+                                         @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) Integer size) {
         log.trace("Search for items whose name or description contains text: {} is started", text);
-        return itemClient.search(text);
+        return itemClient.search(text, cursor, size);
     }
 }
@@ -1,8 +1,10 @@
 package ru.practicum.shareit.user;
 
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
@@ -10,6 +12,9 @@ import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.util.HashMap;
+import java.util.Map;
+
 @Service
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
@@ -32,8 +37,19 @@ public class UserClient extends BaseClient {
         return get("/" + userId);
     }
 
-    public ResponseEntity<Object> findAll() {
-        return get("");
+    public ResponseEntity<Object> findAll(String cursor, Integer size) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("size", size);
+
+        if (cursor == null) {
+            return get("?size={size}", null, parameters);
+        }
+        parameters.put("cursor", cursor);
+        return get("?size={size}&cursor={cursor}", null, parameters);
+    }
+
+    public void streamAll(HttpServletResponse response) {
+        stream("/stream", null, MediaType.APPLICATION_NDJSON, response);
     }
 
     public ResponseEntity<Object> update(Long id, UserDto userDto) {
@@ -1,9 +1,12 @@
 package ru.practicum.shareit.user;
 
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -11,6 +14,9 @@ import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.validation.CreateUserValidation;
 import ru.practicum.shareit.user.validation.PatchUserValidation;
 
+import static ru.practicum.shareit.util.Constants.DEFAULT_PAGE_SIZE;
+import static ru.practicum.shareit.util.Constants.MAX_PAGE_SIZE;
+
 @Slf4j
 @Validated
 @RestController
@@ -34,9 +40,17 @@ public class UserController {
     }
 
     @GetMapping
-    public ResponseEntity<Object> readAll() {
-        log.trace("Getting collection of all users is started");
-        return userClient.findAll();
+    public ResponseEntity<Object> readAll(@RequestParam(required = false) String cursor,
+                                          @Positive @Max(MAX_PAGE_SIZE)
+                                          @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) Integer size) {
+        log.trace("Getting page of users is started");
+        return userClient.findAll(cursor, size);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamAll(HttpServletResponse response) {
+        log.trace("Streaming of all users is started");
+        userClient.streamAll(response);
     }
 
     @PatchMapping("/{id}")
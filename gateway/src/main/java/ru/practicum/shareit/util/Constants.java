@@ -2,5 +2,8 @@ package ru.practicum.shareit.util;
 
 public class Constants {
     public static final String USER_HEADER = "X-Sharer-User-Id";
-    public static final String STATE_REGEX = "ALL|CURRENT|PAST|FUTURE|WAITING|REJECTED";
+    public static final String STATE_REGEX = "ALL|CURRENT|PAST|FUTURE|WAITING|REJECTED|EXPIRED";
+    public static final String DEFAULT_PAGE_SIZE = "50";
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final int MAX_BATCH_SIZE = 500;
 }
@@ -61,15 +61,25 @@ public class UserControllerTest {
     @Test
     public void shouldGetUsers() throws Exception {
         Mockito
-                .when(userClient.findAll())
+                .when(userClient.findAll(null, 2))
                 .thenReturn(responseEntity);
 
         mvc.perform(get("/users")
+                        .param("size", "2")
                         .characterEncoding(StandardCharsets.UTF_8)
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk());
     }
 
+    @Test
+    public void shouldRejectTooLargePageOfUsers() throws Exception {
+        mvc.perform(get("/users")
+                        .param("size", "501")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     public void shouldAddUser() throws Exception {
         Mockito
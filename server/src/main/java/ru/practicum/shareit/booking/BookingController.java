@@ -3,12 +3,16 @@ package ru.practicum.shareit.booking;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingResponse;
+import ru.practicum.shareit.booking.dto.BookingStatsDto;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.pagination.CursorPage;
 
-import java.util.Collection;
+import java.util.List;
 
 @Slf4j
 @RestController
@@ -27,6 +31,13 @@ public class BookingController {
         return bookingService.create(userId, bookingDto);
     }
 
+    @PostMapping("/batch")
+    public List<BookingBatchResult> createAll(@RequestHeader(userHeader) Long userId,
+                                              @RequestBody List<BookingDto> bookingDtos) {
+        log.trace("Batch booking of {} items is started", bookingDtos.size());
+        return bookingService.createAll(userId, bookingDtos);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingResponse read(@RequestHeader(userHeader) Long userId,
                                 @PathVariable Long bookingId) {
@@ -35,18 +46,46 @@ public class BookingController {
     }
 
     @GetMapping
-    public Collection<BookingResponse> readUserBookings(@RequestHeader(userHeader) Long userId,
-                                                        @RequestParam String state) {
+    public ResponseEntity<List<BookingResponse>> readUserBookings(@RequestHeader(userHeader) Long userId,
+                                                                  @RequestParam String state,
+                                                                  @RequestParam(required = false) String cursor,
+                                                                  @RequestParam(defaultValue = CursorPage.DEFAULT_SIZE)
+                                                                  Integer size) {
         log.trace("Getting collection of bookings for user-owner with id: {} is started. State is: {}", userId, state);
-        return bookingService.readBookingsForUser(userId, state);
+        return bookingService.readBookingsForUser(userId, state, cursor, size).toResponseEntity();
     }
 
     @GetMapping("/owner")
-    public Collection<BookingResponse> readUserAsOwnerBookings(@RequestHeader(userHeader) Long userId,
-                                                               @RequestParam String state) {
+    public ResponseEntity<List<BookingResponse>> readUserAsOwnerBookings(@RequestHeader(userHeader) Long userId,
+                                                                         @RequestParam String state,
+                                                                         @RequestParam(required = false)
+                                                                         String cursor,
+                                                                         @RequestParam(defaultValue =
+                                                                                 CursorPage.DEFAULT_SIZE)
+                                                                         Integer size) {
         log.trace("Getting collection of bookings for user-booker with id: {} is started. State is: {}",
                 userId, state);
-        return bookingService.readBookingsForOwner(userId, state);
+        return bookingService.readBookingsForOwner(userId, state, cursor, size).toResponseEntity();
+    }
+
+    @GetMapping("/stats")
+    public BookingStatsDto readUserBookingStats(@RequestHeader(userHeader) Long userId) {
+        log.trace("Counting bookings by state for user-booker with id: {} is started", userId);
+        return bookingService.readStatsForUser(userId);
+    }
+
+    @GetMapping("/owner/stats")
+    public BookingStatsDto readUserAsOwnerBookingStats(@RequestHeader(userHeader) Long userId) {
+        log.trace("Counting bookings by state for user-owner with id: {} is started", userId);
+        return bookingService.readStatsForOwner(userId);
+    }
+
+    @PatchMapping("/batch")
+    public List<BookingBatchResult> updateStatuses(@RequestHeader(userHeader) Long userId,
+                                                   @RequestParam(required = false) Boolean approved,
+                                                   @RequestBody(required = false) List<Long> bookingIds) {
+        log.trace("Start of updating status of bookings {} (userId: {})", bookingIds, userId);
+        return bookingService.updateStatuses(userId, bookingIds, approved);
     }
 
     @PatchMapping("/{bookingId}")
@@ -0,0 +1,84 @@
+package ru.practicum.shareit.booking.availability;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingAvailabilityIndex {
+    public static final List<Status> BLOCKING_STATUSES = List.of(Status.WAITING, Status.APPROVED);
+
+    private final BookingRepository bookingRepository;
+
+    private final Map<Long, IntervalTree> trees = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        log.trace("Rebuilding of booking availability index has started");
+        List<Booking> bookings = bookingRepository.findAllByStatusInAndEndAfter(BLOCKING_STATUSES,
+                LocalDateTime.now());
+
+        trees.clear();
+        bookings.forEach(this::add);
+        log.info("Booking availability index is built: {} bookings of {} items", bookings.size(), trees.size());
+    }
+
+    public boolean isAvailable(Long itemId, LocalDateTime start, LocalDateTime end) {
+        IntervalTree tree = trees.get(itemId);
+        if (tree == null) {
+            return true;
+        }
+
+        synchronized (tree) {
+            if (!tree.overlaps(start, end)) {
+                return true;
+            }
+        }
+
+        if (bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(itemId, BLOCKING_STATUSES,
+                end, start)) {
+            return false;
+        }
+
+        log.warn("Booking availability index of item with id: {} is stale and will be reloaded", itemId);
+        reload(itemId);
+        return true;
+    }
+
+    public void add(Booking booking) {
+        IntervalTree tree = trees.computeIfAbsent(booking.getItem().getId(), id -> new IntervalTree());
+        synchronized (tree) {
+            tree.insert(booking.getId(), booking.getStart(), booking.getEnd());
+        }
+    }
+
+    public void remove(Booking booking) {
+        IntervalTree tree = trees.get(booking.getItem().getId());
+        if (tree == null) {
+            return;
+        }
+
+        synchronized (tree) {
+            tree.remove(booking.getId(), booking.getStart());
+        }
+    }
+
+    private void reload(Long itemId) {
+        IntervalTree tree = new IntervalTree();
+        bookingRepository.findAllByItemIdAndStatusInAndEndAfter(itemId, BLOCKING_STATUSES, LocalDateTime.now())
+                .forEach(booking -> tree.insert(booking.getId(), booking.getStart(), booking.getEnd()));
+        trees.put(itemId, tree);
+    }
+}
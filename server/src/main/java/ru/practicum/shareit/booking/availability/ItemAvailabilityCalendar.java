@@ -0,0 +1,146 @@
+package ru.practicum.shareit.booking.availability;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Collectors;
+
+import static ru.practicum.shareit.booking.availability.BookingAvailabilityIndex.BLOCKING_STATUSES;
+
+@Slf4j
+@Component
+public class ItemAvailabilityCalendar {
+    public static final String ITEM_AVAILABILITY_CACHE = "itemAvailability";
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final BookingRepository bookingRepository;
+    private final Cache<Object, Object> days;
+    // Bumped by every eviction of an item, so a load that overlapped one knows its bookings may predate the change.
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    @SuppressWarnings("unchecked")
+    public ItemAvailabilityCalendar(BookingRepository bookingRepository, CacheManager cacheManager) {
+        this.bookingRepository = bookingRepository;
+        this.days = (Cache<Object, Object>) Objects.requireNonNull(cacheManager.getCache(ITEM_AVAILABILITY_CACHE))
+                .getNativeCache();
+    }
+
+    public List<ItemAvailabilityDto> findFreeWindows(Long itemId, LocalDateTime from, LocalDateTime to) {
+        log.trace("Searching for free windows of item with id: {} from {} to {}", itemId, from, to);
+
+        List<DayKey> keys = daysOf(itemId, from, to);
+        Map<Object, Object> cached = new HashMap<>(days.getAllPresent(keys));
+        Set<DayKey> missing = keys.stream()
+                .filter(key -> !cached.containsKey(key))
+                .collect(Collectors.toSet());
+        if (!missing.isEmpty()) {
+            cached.putAll(loadAndCache(itemId, missing));
+        }
+
+        List<ItemAvailabilityDto> windows = new ArrayList<>();
+        for (DayKey key : keys) {
+            for (Object value : (List<?>) cached.get(key)) {
+                ItemAvailabilityDto window = clip((ItemAvailabilityDto) value, from, to);
+                if (window == null) {
+                    continue;
+                }
+
+                if (!windows.isEmpty() && windows.getLast().getEnd().equals(window.getStart())) {
+                    window = new ItemAvailabilityDto(windows.removeLast().getStart(), window.getEnd());
+                }
+                windows.add(window);
+            }
+        }
+
+        log.debug("Found {} free windows of item with id: {}", windows.size(), itemId);
+        return windows;
+    }
+
+    public void evict(Long itemId, LocalDateTime start, LocalDateTime end) {
+        generations.incrementAndGet(stripe(itemId));
+        days.invalidateAll(daysOf(itemId, start, end));
+        log.debug("Availability of item with id: {} from {} to {} is evicted from cache", itemId, start, end);
+    }
+
+    // An eviction that runs while the days load may have come too late for the load to see its booking. Those days
+    // are then returned but not kept; checking again once they are cached covers an eviction that lands in between.
+    private Map<DayKey, List<ItemAvailabilityDto>> loadAndCache(Long itemId, Set<DayKey> missing) {
+        long generation = generations.get(stripe(itemId));
+        Map<DayKey, List<ItemAvailabilityDto>> loaded = load(itemId, missing);
+
+        if (generations.get(stripe(itemId)) == generation) {
+            days.putAll(loaded);
+            if (generations.get(stripe(itemId)) != generation) {
+                days.invalidateAll(loaded.keySet());
+            }
+        } else {
+            log.debug("Availability of item with id: {} changed while loading and is not cached", itemId);
+        }
+        return loaded;
+    }
+
+    private Map<DayKey, List<ItemAvailabilityDto>> load(Long itemId, Set<DayKey> missing) {
+        LocalDate first = missing.stream().map(DayKey::day).min(LocalDate::compareTo).orElseThrow();
+        LocalDate last = missing.stream().map(DayKey::day).max(LocalDate::compareTo).orElseThrow();
+        LocalDateTime spanStart = first.atStartOfDay();
+        LocalDateTime spanEnd = last.plusDays(1).atStartOfDay();
+
+        List<Booking> bookings = bookingRepository.findAllByItemIdAndStatusInAndStartBeforeAndEndAfterOrderByStartAsc(
+                itemId, BLOCKING_STATUSES, spanEnd, spanStart);
+        log.debug("Loaded {} bookings of item with id: {} from {} to {}", bookings.size(), itemId, first, last);
+
+        List<ItemAvailabilityDto> windows = new ArrayList<>();
+        LocalDateTime cursor = spanStart;
+        for (Booking booking : bookings) {
+            if (booking.getStart().isAfter(cursor)) {
+                windows.add(new ItemAvailabilityDto(cursor, booking.getStart()));
+            }
+            if (booking.getEnd().isAfter(cursor)) {
+                cursor = booking.getEnd();
+            }
+        }
+        if (cursor.isBefore(spanEnd)) {
+            windows.add(new ItemAvailabilityDto(cursor, spanEnd));
+        }
+
+        Map<DayKey, List<ItemAvailabilityDto>> loaded = new HashMap<>();
+        for (DayKey key : missing) {
+            LocalDate day = key.day();
+            loaded.put(key, windows.stream()
+                    .map(window -> clip(window, day.atStartOfDay(), day.plusDays(1).atStartOfDay()))
+                    .filter(Objects::nonNull)
+                    .toList());
+        }
+        return loaded;
+    }
+
+    private static int stripe(Long itemId) {
+        return Math.floorMod(Long.hashCode(itemId), GENERATION_STRIPES);
+    }
+
+    private static List<DayKey> daysOf(Long itemId, LocalDateTime from, LocalDateTime to) {
+        LocalDate last = to.toLocalTime().equals(LocalTime.MIDNIGHT) ? to.toLocalDate().minusDays(1) : to.toLocalDate();
+        return from.toLocalDate().datesUntil(last.plusDays(1))
+                .map(day -> new DayKey(itemId, day))
+                .toList();
+    }
+
+    private static ItemAvailabilityDto clip(ItemAvailabilityDto window, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime start = window.getStart().isBefore(from) ? from : window.getStart();
+        LocalDateTime end = window.getEnd().isAfter(to) ? to : window.getEnd();
+        return start.isBefore(end) ? new ItemAvailabilityDto(start, end) : null;
+    }
+
+    private record DayKey(long itemId, LocalDate day) {
+    }
+}
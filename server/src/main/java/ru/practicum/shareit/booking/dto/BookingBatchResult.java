@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+import ru.practicum.shareit.exception.ErrorResponse;
+
+@Builder
+@Getter
+@ToString
+@EqualsAndHashCode
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BookingBatchResult {
+
+    private final int index;
+
+    private final int status;
+
+    private final BookingResponse booking;
+
+    private final ErrorResponse error;
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.*;
+
+@Builder
+@Getter
+@ToString
+@EqualsAndHashCode
+public class BookingStatsDto {
+
+    private final long all;
+
+    private final long current;
+
+    private final long past;
+
+    private final long future;
+
+    private final long waiting;
+
+    private final long rejected;
+
+    private final long expired;
+}
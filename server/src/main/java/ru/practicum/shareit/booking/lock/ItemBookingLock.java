@@ -0,0 +1,138 @@
+package ru.practicum.shareit.booking.lock;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemBookingLock {
+    private final MeterRegistry meterRegistry;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${shareit.booking.lock.mode:striped}")
+    private ItemBookingLockMode lockMode;
+
+    @Value("${shareit.booking.lock.stripes:64}")
+    private int stripes;
+
+    private ReentrantLock[] locks;
+    private Timer[] waitTimers;
+    private Counter[] contentionCounters;
+
+    @PostConstruct
+    void init() {
+        locks = new ReentrantLock[stripes];
+        waitTimers = new Timer[stripes];
+        contentionCounters = new Counter[stripes];
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            locks[stripe] = new ReentrantLock();
+            waitTimers[stripe] = Timer.builder("shareit.booking.lock.wait")
+                    .tag("mode", lockMode.name().toLowerCase())
+                    .tag("stripe", String.valueOf(stripe))
+                    .register(meterRegistry);
+            contentionCounters[stripe] = Counter.builder("shareit.booking.lock.contention")
+                    .tag("mode", lockMode.name().toLowerCase())
+                    .tag("stripe", String.valueOf(stripe))
+                    .register(meterRegistry);
+        }
+        log.info("Item booking lock uses {} mode with {} stripes", lockMode, stripes);
+    }
+
+    public <T> T withLock(Long itemId, Supplier<T> action) {
+        return withLocks(List.of(itemId), action);
+    }
+
+    public <T> T withLocks(Collection<Long> itemIds, Supplier<T> action) {
+        if (lockMode == ItemBookingLockMode.ADVISORY) {
+            List<Long> keys = itemIds.stream().distinct().sorted().toList();
+            return transactionTemplate.execute(status -> {
+                if (keys.size() == 1) {
+                    lockAdvisory(keys.getFirst());
+                } else {
+                    lockAdvisory(keys);
+                }
+                return action.get();
+            });
+        }
+
+        List<Integer> lockedStripes = itemIds.stream().map(this::stripe).distinct().sorted().toList();
+        List<ReentrantLock> acquired = new ArrayList<>(lockedStripes.size());
+        try {
+            for (int stripe : lockedStripes) {
+                lockStripe(stripe);
+                acquired.add(locks[stripe]);
+            }
+            return action.get();
+        } finally {
+            acquired.reversed().forEach(ReentrantLock::unlock);
+        }
+    }
+
+    private void lockStripe(int stripe) {
+        ReentrantLock lock = locks[stripe];
+        if (lock.tryLock()) {
+            waitTimers[stripe].record(0, TimeUnit.NANOSECONDS);
+            return;
+        }
+
+        contentionCounters[stripe].increment();
+        long started = System.nanoTime();
+        lock.lock();
+        long waited = System.nanoTime() - started;
+        waitTimers[stripe].record(waited, TimeUnit.NANOSECONDS);
+        log.debug("Waited for lock stripe {} for {} ns", stripe, waited);
+    }
+
+    private void lockAdvisory(Long itemId) {
+        int stripe = stripe(itemId);
+        Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, itemId);
+        if (Boolean.TRUE.equals(locked)) {
+            waitTimers[stripe].record(0, TimeUnit.NANOSECONDS);
+            return;
+        }
+
+        contentionCounters[stripe].increment();
+        long started = System.nanoTime();
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(?)", resultSet -> null, itemId);
+        long waited = System.nanoTime() - started;
+        waitTimers[stripe].record(waited, TimeUnit.NANOSECONDS);
+        log.debug("Waited for advisory lock of item with id: {} for {} ns", itemId, waited);
+    }
+
+    // One round trip for the whole batch. unnest keeps the sorted order of the keys, so concurrent batches take their
+    // locks in the same order and can't deadlock.
+    private void lockAdvisory(List<Long> itemIds) {
+        long started = System.nanoTime();
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(k) FROM unnest(?) AS k",
+                statement -> statement.setArray(1, statement.getConnection().createArrayOf("bigint",
+                        itemIds.toArray())),
+                resultSet -> null);
+        long waited = System.nanoTime() - started;
+        itemIds.stream()
+                .map(this::stripe)
+                .distinct()
+                .forEach(stripe -> waitTimers[stripe].record(waited, TimeUnit.NANOSECONDS));
+        log.debug("Waited for advisory locks of {} items for {} ns", itemIds.size(), waited);
+    }
+
+    private int stripe(Long itemId) {
+        return (int) Math.floorMod(itemId, (long) stripes);
+    }
+}
@@ -0,0 +1,6 @@
+package ru.practicum.shareit.booking.lock;
+
+public enum ItemBookingLockMode {
+    STRIPED,
+    ADVISORY
+}
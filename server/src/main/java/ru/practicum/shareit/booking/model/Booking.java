@@ -8,7 +8,15 @@ import ru.practicum.shareit.user.model.User;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "bookings")
+@Table(name = "bookings", indexes = {
+        @Index(name = "IX_BOOKINGS_BOOKER_START", columnList = "booker_id, start_date DESC, id DESC"),
+        @Index(name = "IX_BOOKINGS_BOOKER_STATUS_START", columnList = "booker_id, status, start_date DESC, id DESC"),
+        @Index(name = "IX_BOOKINGS_ITEM_START", columnList = "item_id, start_date DESC, id DESC"),
+        @Index(name = "IX_BOOKINGS_ITEM_STATUS_START", columnList = "item_id, status, start_date"),
+        @Index(name = "IX_BOOKINGS_ITEM_END", columnList = "item_id, end_date"),
+        @Index(name = "IX_BOOKINGS_STATUS_START", columnList = "status, start_date"),
+        @Index(name = "IX_BOOKINGS_STATUS_END", columnList = "status, end_date")
+})
 @Builder
 @Getter
 @Setter
@@ -19,7 +27,8 @@ import java.time.LocalDateTime;
 public class Booking {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "start_date")
@@ -38,4 +47,8 @@ public class Booking {
 
     @Enumerated(EnumType.STRING)
     private Status status;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
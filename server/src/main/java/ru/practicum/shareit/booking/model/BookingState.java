@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.model;
+
+public enum BookingState {
+    ALL,
+    CURRENT,
+    PAST,
+    FUTURE,
+    WAITING,
+    REJECTED,
+    EXPIRED;
+
+    public static BookingState from(String state) {
+        for (BookingState value : values()) {
+            if (value.name().equals(state)) {
+                return value;
+            }
+        }
+        return ALL;
+    }
+}
@@ -0,0 +1,180 @@
+package ru.practicum.shareit.booking.partition;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.lock.ItemBookingLockMode;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingPartitionManager {
+    private static final String DEFAULT_PARTITION = "bookings_default";
+    private static final String LEGACY_TABLE = "bookings_legacy";
+    private static final String COLUMNS = "id, start_date, end_date, item_id, booker_id, status, version";
+    private static final String PERIOD_CONSTRAINT = "ex_bookings_item_period";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${shareit.booking.partitions.enabled:false}")
+    private boolean enabled;
+
+    @Value("${shareit.booking.partitions.months-ahead:24}")
+    private int monthsAhead;
+
+    @Value("${shareit.booking.lock.mode:striped}")
+    private ItemBookingLockMode lockMode;
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        // Each partition has its own exclusion constraint, so overlapping bookings ending in different months are
+        // only kept apart by checking the database under a lock that every node shares.
+        if (lockMode != ItemBookingLockMode.ADVISORY) {
+            throw new IllegalStateException("Booking partitions require shareit.booking.lock.mode=advisory");
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!isPartitioned()) {
+                migrateLegacyTable();
+            }
+            createDefaultPartition();
+        });
+        maintain();
+    }
+
+    @Scheduled(cron = "${shareit.booking.partitions.cron:-}")
+    public void maintain() {
+        if (!enabled) {
+            return;
+        }
+
+        log.trace("Maintenance of booking partitions has started");
+        createPartitions(oldestMonth(DEFAULT_PARTITION), YearMonth.now().plusMonths(monthsAhead));
+    }
+
+    public void createPartitions(YearMonth from, YearMonth to) {
+        Set<String> partitions = new HashSet<>(jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid " +
+                "WHERE i.inhparent = 'bookings'::regclass", String.class));
+
+        int created = 0;
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            if (!partitions.contains(name(month))) {
+                YearMonth partitionMonth = month;
+                transactionTemplate.executeWithoutResult(status -> createPartition(partitionMonth));
+                created++;
+            }
+        }
+        log.debug("{} booking partitions were created from {} to {}", created, from, to);
+    }
+
+    private void createDefaultPartition() {
+        if (Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class,
+                DEFAULT_PARTITION))) {
+            return;
+        }
+
+        jdbcTemplate.execute("CREATE TABLE " + DEFAULT_PARTITION + " PARTITION OF bookings DEFAULT");
+        addPeriodConstraint(DEFAULT_PARTITION, "default");
+        log.info("Default booking partition is created");
+    }
+
+    private void createPartition(YearMonth month) {
+        String name = name(month);
+        Timestamp from = Timestamp.valueOf(month.atDay(1).atStartOfDay());
+        Timestamp to = Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay());
+
+        boolean occupied = Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM " +
+                DEFAULT_PARTITION + " WHERE end_date >= ? AND end_date < ?)", Boolean.class, from, to));
+        if (occupied) {
+            jdbcTemplate.execute("ALTER TABLE bookings DETACH PARTITION " + DEFAULT_PARTITION);
+        }
+
+        jdbcTemplate.execute(String.format("CREATE TABLE %s PARTITION OF bookings FOR VALUES FROM ('%s') TO ('%s')",
+                name, from, to));
+        addPeriodConstraint(name, month.format(SUFFIX));
+
+        if (occupied) {
+            int moved = jdbcTemplate.update("INSERT INTO " + name + " (" + COLUMNS + ") SELECT " + COLUMNS +
+                    " FROM " + DEFAULT_PARTITION + " WHERE end_date >= ? AND end_date < ?", from, to);
+            jdbcTemplate.update("DELETE FROM " + DEFAULT_PARTITION + " WHERE end_date >= ? AND end_date < ?",
+                    from, to);
+            jdbcTemplate.execute("ALTER TABLE bookings ATTACH PARTITION " + DEFAULT_PARTITION + " DEFAULT");
+            log.debug("{} bookings were moved from the default partition to {}", moved, name);
+        }
+        log.info("Booking partition {} is created", name);
+    }
+
+    private void addPeriodConstraint(String partition, String suffix) {
+        jdbcTemplate.execute(String.format("ALTER TABLE %s ADD CONSTRAINT %s_%s EXCLUDE USING gist (" +
+                "item_id WITH =, tstzrange(start_date, end_date) WITH &&) " +
+                "WHERE (status IN ('WAITING', 'APPROVED'))", partition, PERIOD_CONSTRAINT, suffix));
+    }
+
+    private void migrateLegacyTable() {
+        log.info("Bookings table is not partitioned and will be migrated");
+        jdbcTemplate.execute("ALTER TABLE bookings RENAME TO " + LEGACY_TABLE);
+
+        List<String> constraints = jdbcTemplate.queryForList("SELECT conname FROM pg_constraint " +
+                "WHERE conrelid = '" + LEGACY_TABLE + "'::regclass AND contype IN ('p', 'u', 'x', 'f')", String.class);
+        constraints.forEach(constraint -> jdbcTemplate.execute("ALTER TABLE " + LEGACY_TABLE +
+                " DROP CONSTRAINT " + constraint));
+        List<String> indexes = jdbcTemplate.queryForList("SELECT indexname FROM pg_indexes " +
+                "WHERE schemaname = current_schema() AND tablename = '" + LEGACY_TABLE + "'", String.class);
+        indexes.forEach(index -> jdbcTemplate.execute("DROP INDEX " + index));
+
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("schema.sql"));
+            return null;
+        });
+
+        createDefaultPartition();
+        createPartitions(oldestMonth(LEGACY_TABLE), YearMonth.now().plusMonths(monthsAhead));
+
+        int migrated = jdbcTemplate.update("INSERT INTO bookings (" + COLUMNS + ") SELECT " + COLUMNS +
+                " FROM " + LEGACY_TABLE);
+        jdbcTemplate.execute("DROP TABLE " + LEGACY_TABLE);
+        log.info("{} bookings were migrated to the partitioned table", migrated);
+    }
+
+    private YearMonth oldestMonth(String table) {
+        Timestamp oldest = jdbcTemplate.queryForObject("SELECT MIN(end_date) FROM " + table, Timestamp.class);
+        return oldest == null || !oldest.toLocalDateTime().isBefore(LocalDateTime.now())
+                ? YearMonth.now()
+                : YearMonth.from(oldest.toLocalDateTime());
+    }
+
+    private boolean isPartitioned() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM pg_partitioned_table " +
+                "WHERE partrelid = 'bookings'::regclass)", Boolean.class));
+    }
+
+    private static String name(YearMonth month) {
+        return "bookings_p" + month.format(SUFFIX);
+    }
+}
@@ -0,0 +1,103 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import ru.practicum.shareit.booking.model.BookingPeriodMode;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingState;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+
+@Getter
+@Builder
+@ToString
+public class BookingQuery {
+    private static final String SELECT = "SELECT b.id, b.start_date, b.end_date, b.status, " +
+            "i.id AS item_id, i.name AS item_name, i.description AS item_description, " +
+            "i.is_available AS item_available, i.owner_id AS item_owner_id, i.request_id AS item_request_id, " +
+            "u.id AS booker_id, u.name AS booker_name, u.email AS booker_email " +
+            "FROM bookings b " +
+            "JOIN items i ON i.id = b.item_id " +
+            "JOIN users u ON u.id = b.booker_id ";
+    private static final Set<BookingState> STATUS_STATES = EnumSet.of(BookingState.WAITING, BookingState.REJECTED,
+            BookingState.EXPIRED);
+
+    private final Long userId;
+
+    @Builder.Default
+    private final BookingRole role = BookingRole.BOOKER;
+
+    @Builder.Default
+    private final BookingState state = BookingState.ALL;
+
+    private final Long itemId;
+
+    private final LocalDateTime from;
+
+    private final LocalDateTime to;
+
+    private final LocalDateTime now;
+
+    private final LocalDateTime afterStart;
+
+    private final Long afterId;
+
+    private final int limit;
+
+    @Builder.Default
+    private final BookingPeriodMode periodMode = BookingPeriodMode.BTREE;
+
+    public String toSql() {
+        StringBuilder sql = new StringBuilder(SELECT);
+        sql.append(role == BookingRole.OWNER ? "WHERE i.owner_id = :userId " : "WHERE b.booker_id = :userId ");
+
+        if (itemId != null) {
+            sql.append("AND b.item_id = :itemId ");
+        }
+        if (from != null) {
+            sql.append("AND b.end_date > :from ");
+        }
+        if (to != null) {
+            sql.append("AND b.start_date < :to ");
+        }
+
+        boolean range = periodMode == BookingPeriodMode.RANGE;
+        switch (state) {
+            case CURRENT -> sql.append(range
+                    ? "AND b.period @> CAST(:now AS TIMESTAMPTZ) AND b.end_date > :now "
+                    : "AND b.start_date < :now AND b.end_date > :now ");
+            case PAST -> sql.append(range
+                    ? "AND b.period << tstzrange(CAST(:now AS TIMESTAMPTZ), NULL) "
+                    : "AND b.end_date < :now ");
+            case FUTURE -> sql.append(range
+                    ? "AND b.period >> tstzrange(NULL, CAST(:now AS TIMESTAMPTZ), '(]') AND b.end_date > :now "
+                    : "AND b.start_date > :now AND b.end_date > :now ");
+            case WAITING -> sql.append("AND b.status = :status AND b.end_date > :now ");
+            case REJECTED, EXPIRED -> sql.append("AND b.status = :status ");
+            default -> {
+            }
+        }
+
+        if (afterStart != null) {
+            sql.append("AND (b.start_date < :afterStart OR (b.start_date = :afterStart AND b.id < :afterId)) ");
+        }
+        return sql.append("ORDER BY b.start_date DESC, b.id DESC LIMIT :limit").toString();
+    }
+
+    public MapSqlParameterSource toParameters() {
+        return new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("itemId", itemId)
+                .addValue("from", from)
+                .addValue("to", to)
+                .addValue("now", now)
+                .addValue("status", STATUS_STATES.contains(state) ? state.name() : null)
+                .addValue("afterStart", afterStart)
+                .addValue("afterId", afterId)
+                .addValue("limit", limit);
+    }
+}
@@ -0,0 +1,148 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.dto.BookingResponse;
+import ru.practicum.shareit.booking.dto.BookingStatsDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class BookingQueryRepository {
+    private static final RowMapper<BookingResponse> BOOKING_RESPONSE_MAPPER = (rs, rowNum) -> BookingResponse.builder()
+            .id(rs.getLong("id"))
+            .start(rs.getTimestamp("start_date").toLocalDateTime())
+            .end(rs.getTimestamp("end_date").toLocalDateTime())
+            .status(Status.valueOf(rs.getString("status")))
+            .item(ItemDto.builder()
+                    .id(rs.getLong("item_id"))
+                    .name(rs.getString("item_name"))
+                    .description(rs.getString("item_description"))
+                    .available(rs.getBoolean("item_available"))
+                    .owner(rs.getLong("item_owner_id"))
+                    .requestId(rs.getObject("item_request_id", Long.class))
+                    .build())
+            .booker(UserDto.builder()
+                    .id(rs.getLong("booker_id"))
+                    .name(rs.getString("booker_name"))
+                    .email(rs.getString("booker_email"))
+                    .build())
+            .build();
+
+    private static final String COUNT_BY_STATE = "SELECT COUNT(*) AS all_count, " +
+            "COUNT(*) FILTER (WHERE b.start_date < :now AND b.end_date > :now) AS current_count, " +
+            "COUNT(*) FILTER (WHERE b.end_date < :now) AS past_count, " +
+            "COUNT(*) FILTER (WHERE b.start_date > :now) AS future_count, " +
+            "COUNT(*) FILTER (WHERE b.status = 'WAITING' AND b.end_date > :now) AS waiting_count, " +
+            "COUNT(*) FILTER (WHERE b.status = 'REJECTED') AS rejected_count, " +
+            "COUNT(*) FILTER (WHERE b.status = 'EXPIRED') AS expired_count " +
+            "FROM bookings b ";
+    private static final String COUNT_BY_STATE_FOR_BOOKER = COUNT_BY_STATE + "WHERE b.booker_id = :userId";
+    private static final String COUNT_BY_STATE_FOR_OWNER = COUNT_BY_STATE +
+            "JOIN items i ON i.id = b.item_id WHERE i.owner_id = :userId";
+
+    private static final RowMapper<BookingStatsDto> BOOKING_STATS_MAPPER = (rs, rowNum) -> BookingStatsDto.builder()
+            .all(rs.getLong("all_count"))
+            .current(rs.getLong("current_count"))
+            .past(rs.getLong("past_count"))
+            .future(rs.getLong("future_count"))
+            .waiting(rs.getLong("waiting_count"))
+            .rejected(rs.getLong("rejected_count"))
+            .expired(rs.getLong("expired_count"))
+            .build();
+
+    private static final String UPDATE_WAITING_STATUSES_OF_OWNER = "UPDATE bookings " +
+            "SET status = :status, version = version + 1 " +
+            "WHERE id IN (:ids) AND status = 'WAITING' " +
+            "AND item_id IN (SELECT id FROM items WHERE owner_id = :ownerId)";
+
+    private static final String NEXT_IDS = "SELECT nextval('bookings_seq') FROM generate_series(1, :count)";
+    private static final String INSERT_WAITING_SKIPPING_CONFLICTS = "INSERT INTO bookings " +
+            "(id, start_date, end_date, item_id, booker_id, status, version) " +
+            "VALUES (:id, :start, :end, :itemId, :bookerId, 'WAITING', 0) ON CONFLICT DO NOTHING";
+    private static final String FIND_IDS = "SELECT id FROM bookings WHERE id IN (:ids)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public List<BookingResponse> find(BookingQuery query) {
+        log.trace("Searching for bookings with {}", query);
+        return jdbcTemplate.query(query.toSql(), query.toParameters(), BOOKING_RESPONSE_MAPPER);
+    }
+
+    public BookingStatsDto countByState(Long userId, BookingRole role, LocalDateTime now) {
+        log.trace("Counting bookings of user with id: {} as {} by state", userId, role);
+        return jdbcTemplate.queryForObject(role == BookingRole.OWNER ? COUNT_BY_STATE_FOR_OWNER
+                        : COUNT_BY_STATE_FOR_BOOKER,
+                new MapSqlParameterSource()
+                        .addValue("userId", userId)
+                        .addValue("now", now),
+                BOOKING_STATS_MAPPER);
+    }
+
+    /**
+     * Sets the status of those bookings that are still waiting and belong to items of the owner in one statement.
+     * The ids of the updated rows are read back as generated keys, i.e. {@code RETURNING id} on PostgreSQL.
+     *
+     * @return ids of the updated bookings
+     */
+    public List<Long> updateWaitingStatuses(Long ownerId, Collection<Long> ids, Status status) {
+        log.trace("Setting status {} of {} waiting bookings of owner with id: {}", status, ids.size(), ownerId);
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(UPDATE_WAITING_STATUSES_OF_OWNER, new MapSqlParameterSource()
+                        .addValue("status", status.name())
+                        .addValue("ids", ids)
+                        .addValue("ownerId", ownerId),
+                keyHolder, new String[]{"id"});
+        return keyHolder.getKeyList().stream()
+                .map(keys -> ((Number) keys.values().iterator().next()).longValue())
+                .toList();
+    }
+
+    /**
+     * Inserts waiting bookings in one batch, skipping those an exclusion constraint rejects. Only runs on PostgreSQL.
+     *
+     * @return ids of the bookings in their order, {@code null} for a skipped one
+     */
+    public List<Long> insertWaitingSkippingConflicts(List<Booking> bookings) {
+        log.trace("Inserting {} waiting bookings skipping conflicts", bookings.size());
+        List<Long> ids = jdbcTemplate.queryForList(NEXT_IDS, new MapSqlParameterSource("count", bookings.size()),
+                Long.class);
+        SqlParameterSource[] rows = new SqlParameterSource[bookings.size()];
+        for (int i = 0; i < rows.length; i++) {
+            Booking booking = bookings.get(i);
+            rows[i] = new MapSqlParameterSource()
+                    .addValue("id", ids.get(i))
+                    .addValue("start", Timestamp.valueOf(booking.getStart()))
+                    .addValue("end", Timestamp.valueOf(booking.getEnd()))
+                    .addValue("itemId", booking.getItem().getId())
+                    .addValue("bookerId", booking.getBooker().getId());
+        }
+        jdbcTemplate.batchUpdate(INSERT_WAITING_SKIPPING_CONFLICTS, rows);
+
+        // Update counts of a batch are unreliable once the driver rewrites it, so the inserted rows are read back.
+        Set<Long> inserted = new HashSet<>(jdbcTemplate.queryForList(FIND_IDS, new MapSqlParameterSource("ids", ids),
+                Long.class));
+        return ids.stream()
+                .map(id -> inserted.contains(id) ? id : null)
+                .toList();
+    }
+}
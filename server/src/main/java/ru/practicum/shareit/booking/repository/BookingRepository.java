@@ -1,39 +1,90 @@
 package ru.practicum.shareit.booking.repository;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
-    List<Booking> findBookingsByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(Long userId,
-                                                                                  LocalDateTime nowStart,
-                                                                                  LocalDateTime nowEnd);
-
-    List<Booking> findBookingsByBookerIdAndEndBeforeOrderByStartDesc(Long userId, LocalDateTime now);
-
-    List<Booking> findBookingsByBookerIdAndStartAfterOrderByStartDesc(Long userId, LocalDateTime now);
-
-    List<Booking> findBookingsByBookerIdAndStatusOrderByStartDesc(Long userId, Status status);
-
-    List<Booking> findBookingsByBookerIdOrderByStartDesc(Long userId);
-
-
-    List<Booking> findBookingsByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(Long userId,
-                                                                                     LocalDateTime nowStart,
-                                                                                     LocalDateTime nowEnd);
-
-    List<Booking> findBookingsByItemOwnerIdAndEndBeforeOrderByStartDesc(Long userId, LocalDateTime now);
-
-    List<Booking> findBookingsByItemOwnerIdAndStartAfterOrderByStartDesc(Long userId, LocalDateTime now);
-
-    List<Booking> findBookingsByItemOwnerIdAndStatusOrderByStartDesc(Long userId, Status status);
-
-    List<Booking> findBookingsByItemOwnerIdOrderByStartDesc(Long userId);
-
+    @Override
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+    Optional<Booking> findById(Long id);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking b set b.status = :status, b.version = b.version + 1 " +
+            "where b.id = :id and b.version = :version and b.status = ru.practicum.shareit.booking.model.Status.WAITING")
+    int updateWaitingStatus(@Param("id") Long id, @Param("version") Long version, @Param("status") Status status);
+
+    @Query("select b from Booking b join fetch b.item i join fetch i.owner join fetch b.booker " +
+            "where b.id in :ids")
+    List<Booking> findAllWithItemAndBookerByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select b.id from Booking b where b.status = :status and b.start < :start order by b.start")
+    List<Long> findIdsByStatusAndStartBefore(@Param("status") Status status,
+                                             @Param("start") LocalDateTime start,
+                                             Limit limit);
+
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+    List<Booking> findAllByIdInAndStatus(Collection<Long> ids, Status status);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking b set b.status = :status, b.version = b.version + 1 " +
+            "where b.id in :ids and b.status = ru.practicum.shareit.booking.model.Status.WAITING")
+    int updateWaitingStatuses(@Param("ids") Collection<Long> ids, @Param("status") Status status);
+
+    List<Booking> findAllByStatusInAndEndAfter(Collection<Status> statuses, LocalDateTime now);
+
+    List<Booking> findAllByItemIdAndStatusInAndEndAfter(Long itemId, Collection<Status> statuses, LocalDateTime now);
+
+    List<Booking> findAllByItemIdAndStatusInAndStartBeforeAndEndAfterOrderByStartAsc(Long itemId,
+                                                                                 Collection<Status> statuses,
+                                                                                 LocalDateTime end,
+                                                                                 LocalDateTime start);
+
+    boolean existsByItemIdAndStatusInAndStartBeforeAndEndAfter(Long itemId,
+                                                               Collection<Status> statuses,
+                                                               LocalDateTime end,
+                                                               LocalDateTime start);
+
+    List<Booking> findAllByItemIdInAndStatusInAndStartBeforeAndEndAfter(Collection<Long> itemIds,
+                                                                        Collection<Status> statuses,
+                                                                        LocalDateTime end,
+                                                                        LocalDateTime start);
+
+    @Query("select b from Booking b where b.item.id in :itemIds and b.status <> :status and b.end < :now " +
+            "and b.end = (select max(o.end) from Booking o " +
+            "where o.item.id = b.item.id and o.status <> :status and o.end < :now)")
+    List<Booking> findLastBookingsOfItems(@Param("itemIds") Collection<Long> itemIds,
+                                          @Param("status") Status status,
+                                          @Param("now") LocalDateTime now);
+
+    @Query("select b from Booking b where b.item.id in :itemIds and b.status <> :status and b.start > :now " +
+            "and b.start = (select min(o.start) from Booking o " +
+            "where o.item.id = b.item.id and o.status <> :status and o.start > :now)")
+    List<Booking> findNextBookingsOfItems(@Param("itemIds") Collection<Long> itemIds,
+                                          @Param("status") Status status,
+                                          @Param("now") LocalDateTime now);
+
+    @Query("select b from Booking b where b.item.id in :itemIds and b.status <> :status " +
+            "and b.start <= :now and b.end > :now " +
+            "and b.end = (select min(o.end) from Booking o " +
+            "where o.item.id = b.item.id and o.status <> :status and o.start <= :now and o.end > :now)")
+    List<Booking> findCurrentBookingsOfItems(@Param("itemIds") Collection<Long> itemIds,
+                                             @Param("status") Status status,
+                                             @Param("now") LocalDateTime now);
 
     Booking findTopBookingByItemIdAndStatusNotAndStartBeforeOrderByEndDesc(Long bookingId,
                                                                            Status status,
@@ -42,4 +93,13 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     Booking findTopBookingByItemIdAndStatusNotAndStartAfterOrderByStartAsc(Long bookingId,
                                                                            Status status,
                                                                            LocalDateTime start);
+
+    Booking findFirstByItemIdAndStatusNotAndEndBeforeOrderByEndDesc(Long itemId,
+                                                                    Status status,
+                                                                    LocalDateTime now);
+
+    Booking findFirstByItemIdAndStatusNotAndStartLessThanEqualAndEndAfterOrderByEndAsc(Long itemId,
+                                                                                        Status status,
+                                                                                        LocalDateTime nowStart,
+                                                                                        LocalDateTime nowEnd);
 }
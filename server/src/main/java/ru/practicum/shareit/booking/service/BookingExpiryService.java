@@ -0,0 +1,95 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.availability.BookingAvailabilityIndex;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityCalendar;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.service.ItemBookingPointerService;
+import ru.practicum.shareit.item.service.ItemDetailsLoader;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static ru.practicum.shareit.booking.model.Status.EXPIRED;
+import static ru.practicum.shareit.booking.model.Status.WAITING;
+
+@Slf4j
+@Service
+public class BookingExpiryService {
+    private final BookingRepository bookingRepository;
+    private final BookingAvailabilityIndex bookingAvailabilityIndex;
+    private final ItemAvailabilityCalendar itemAvailabilityCalendar;
+    private final ItemBookingPointerService itemBookingPointerService;
+    private final ItemDetailsLoader itemDetailsLoader;
+    private final BookingStatsLoader bookingStatsLoader;
+    private final Counter expiredCounter;
+    private final Counter batchCounter;
+    private final Timer runTimer;
+
+    @Value("${shareit.booking.expiry.batch-size:500}")
+    private int batchSize;
+
+    public BookingExpiryService(BookingRepository bookingRepository,
+                                BookingAvailabilityIndex bookingAvailabilityIndex,
+                                ItemAvailabilityCalendar itemAvailabilityCalendar,
+                                ItemBookingPointerService itemBookingPointerService,
+                                ItemDetailsLoader itemDetailsLoader,
+                                BookingStatsLoader bookingStatsLoader,
+                                MeterRegistry meterRegistry) {
+        this.bookingRepository = bookingRepository;
+        this.bookingAvailabilityIndex = bookingAvailabilityIndex;
+        this.itemAvailabilityCalendar = itemAvailabilityCalendar;
+        this.itemBookingPointerService = itemBookingPointerService;
+        this.itemDetailsLoader = itemDetailsLoader;
+        this.bookingStatsLoader = bookingStatsLoader;
+        this.expiredCounter = meterRegistry.counter("shareit.booking.expiry.expired");
+        this.batchCounter = meterRegistry.counter("shareit.booking.expiry.batches");
+        this.runTimer = meterRegistry.timer("shareit.booking.expiry.run");
+    }
+
+    @Scheduled(cron = "${shareit.booking.expiry.cron}")
+    public int expire() {
+        return runTimer.record(() -> expire(LocalDateTime.now()));
+    }
+
+    private int expire(LocalDateTime now) {
+        log.trace("Expiry of waiting bookings which started before {} has started", now);
+        int expired = 0;
+
+        List<Long> ids = bookingRepository.findIdsByStatusAndStartBefore(WAITING, now, Limit.of(batchSize));
+        while (!ids.isEmpty()) {
+            int updated = bookingRepository.updateWaitingStatuses(ids, EXPIRED);
+            batchCounter.increment();
+            expiredCounter.increment(updated);
+            expired += updated;
+
+            List<Booking> bookings = bookingRepository.findAllByIdInAndStatus(ids, EXPIRED);
+            bookings.forEach(booking -> {
+                bookingAvailabilityIndex.remove(booking);
+                itemAvailabilityCalendar.evict(booking.getItem().getId(), booking.getStart(), booking.getEnd());
+            });
+            Set<Long> itemIds = bookings.stream()
+                    .map(booking -> booking.getItem().getId())
+                    .collect(Collectors.toSet());
+            itemBookingPointerService.refreshAll(itemIds);
+            itemIds.forEach(itemDetailsLoader::evictBookings);
+            bookings.forEach(bookingStatsLoader::evict);
+            log.debug("{} of {} waiting bookings were expired in a batch", updated, ids.size());
+
+            ids = bookingRepository.findIdsByStatusAndStartBefore(WAITING, now, Limit.of(batchSize));
+        }
+
+        log.debug("{} waiting bookings were expired", expired);
+        return expired;
+    }
+}
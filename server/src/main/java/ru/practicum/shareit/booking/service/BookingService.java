@@ -1,19 +1,39 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingResponse;
+import ru.practicum.shareit.booking.dto.BookingStatsDto;
+import ru.practicum.shareit.budget.QueryBudget;
+import ru.practicum.shareit.pagination.CursorPage;
 
-import java.util.Collection;
 import java.util.List;
 
 public interface BookingService {
+    @QueryBudget(queries = 7, writes = 2)
     BookingResponse create(Long userId, BookingDto bookingDto);
 
+    @QueryBudget(queries = 9, writes = 2)
+    List<BookingBatchResult> createAll(Long userId, List<BookingDto> bookingDtos);
+
+    @QueryBudget(queries = 3)
     BookingResponse findById(Long userId, Long bookingId);
 
-    Collection<BookingResponse> readBookingsForOwner(Long userId, String state);
+    @QueryBudget(queries = 2)
+    CursorPage<BookingResponse> readBookingsForOwner(Long userId, String state, String cursor, int size);
+
+    @QueryBudget(queries = 2)
+    CursorPage<BookingResponse> readBookingsForUser(Long userId, String state, String cursor, int size);
 
-    List<BookingResponse> readBookingsForUser(Long userId, String state);
+    @QueryBudget(queries = 2)
+    BookingStatsDto readStatsForOwner(Long userId);
 
+    @QueryBudget(queries = 2)
+    BookingStatsDto readStatsForUser(Long userId);
+
+    @QueryBudget(queries = 5, writes = 2)
     BookingResponse updateStatus(Long userId, Long bookingId, Boolean approved);
+
+    @QueryBudget(queries = 6, writes = 2)
+    List<BookingBatchResult> updateStatuses(Long userId, List<Long> bookingIds, Boolean approved);
 }
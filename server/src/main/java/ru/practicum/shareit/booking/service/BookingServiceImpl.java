@@ -1,40 +1,95 @@
 package ru.practicum.shareit.booking.service;
 
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import ru.practicum.shareit.booking.BookingMapper;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.availability.BookingAvailabilityIndex;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityCalendar;
+import ru.practicum.shareit.booking.availability.IntervalTree;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingPeriodMode;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingResponse;
+import ru.practicum.shareit.booking.dto.BookingStatsDto;
+import ru.practicum.shareit.booking.lock.ItemBookingLock;
+import ru.practicum.shareit.booking.lock.ItemBookingLockMode;
+import ru.practicum.shareit.booking.repository.BookingQuery;
+import ru.practicum.shareit.booking.repository.BookingQueryRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.AccessDeniedException;
 import ru.practicum.shareit.exception.BookingDeniedException;
+import ru.practicum.shareit.exception.BookingStatusConflictException;
 import ru.practicum.shareit.exception.BookingUpdateStatusException;
+import ru.practicum.shareit.exception.ErrorResponse;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemBookingPointerService;
+import ru.practicum.shareit.item.service.ItemDetailsLoader;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserExistenceCache;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static ru.practicum.shareit.booking.BookingMapper.toBooking;
 import static ru.practicum.shareit.booking.BookingMapper.toBookingResponse;
+import static ru.practicum.shareit.booking.availability.BookingAvailabilityIndex.BLOCKING_STATUSES;
 import static ru.practicum.shareit.booking.model.Status.*;
+import static ru.practicum.shareit.transaction.TransactionCallbacks.afterCommit;
 import static ru.practicum.shareit.user.UserMapper.toUser;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final String BOOKING_PERIOD_CONSTRAINT = "ex_bookings_item_period";
 
     private final UserService userService;
+    private final UserExistenceCache userExistenceCache;
     private final ItemRepository itemRepository;
     private final BookingRepository bookingRepository;
+    private final BookingQueryRepository bookingQueryRepository;
+    private final ItemBookingPointerService itemBookingPointerService;
+    private final ItemDetailsLoader itemDetailsLoader;
+    private final BookingStatsLoader bookingStatsLoader;
+    private final BookingAvailabilityIndex bookingAvailabilityIndex;
+    private final ItemAvailabilityCalendar itemAvailabilityCalendar;
+    private final ItemBookingLock itemBookingLock;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+
+    @Value("${shareit.booking.period-mode:btree}")
+    private BookingPeriodMode periodMode;
+
+    @Value("${shareit.booking.lock.mode:striped}")
+    private ItemBookingLockMode lockMode;
 
     @Override
     public BookingResponse create(Long userId, BookingDto bookingDto) {
@@ -46,23 +101,59 @@ public class BookingServiceImpl implements BookingService {
                 new NotFoundException(String.format("There's no item with id: %d in repository", bookingDto.getId())));
         log.debug("Item with id: {} is in repository", item.getId());
 
-        if (!item.getAvailable()) {
-            throw new BookingDeniedException("Item is not available for booking. It had been already booked");
-        }
-        log.debug("The item has available status for booking");
+        validateItemCanBeBooked(userId, item);
 
-        if (Objects.equals(item.getOwner().getId(), userId)) {
-            throw new BookingDeniedException("It's not available to book your own item");
-        }
-        log.debug("The user has roots to book the item");
+        return itemBookingLock.withLock(item.getId(), () -> {
+            validateItemIsFree(item.getId(), bookingDto.getStart(), bookingDto.getEnd());
+
+            Booking booking = toBooking(bookingDto);
+            booking.setBooker(user);
+            booking.setItem(item);
+            booking.setStatus(WAITING);
+            log.trace("The item has been successfully assigned some characteristics");
+
+            Booking savedBooking = saveBookings(List.of(booking)).getFirst();
+            itemBookingPointerService.refresh(item.getId());
+            afterCommit(() -> {
+                bookingAvailabilityIndex.add(savedBooking);
+                itemDetailsLoader.evictBookings(item.getId());
+                bookingStatsLoader.evict(savedBooking);
+                itemAvailabilityCalendar.evict(item.getId(), savedBooking.getStart(), savedBooking.getEnd());
+            });
+
+            return toBookingResponse(savedBooking);
+        });
+    }
+
+    @Override
+    public List<BookingBatchResult> createAll(Long userId, List<BookingDto> bookingDtos) {
 
-        Booking booking = toBooking(bookingDto);
-        booking.setBooker(user);
-        booking.setItem(item);
-        booking.setStatus(WAITING);
-        log.trace("The item has been successfully assigned some characteristics");
+        log.trace("Adding {} bookings at service level has started", bookingDtos.size());
+        User user = toUser(userService.findById(userId));
+        log.debug("User with id: {} is in repository", userId);
+
+        Set<Long> itemIds = bookingDtos.stream()
+                .map(BookingDto::getItemId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Item> items = itemRepository.findAllWithOwnerByIdIn(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        log.debug("{} of {} referenced items are in repository", items.size(), itemIds.size());
+
+        BookingBatchResult[] results = new BookingBatchResult[bookingDtos.size()];
+        Map<Integer, Booking> accepted = new LinkedHashMap<>();
+        try {
+            itemBookingLock.withLocks(items.keySet(), () -> {
+                accepted.putAll(validateAll(userId, user, items, bookingDtos, results));
+                saveAll(accepted, results);
+                return null;
+            });
+        } catch (BookingDeniedException e) {
+            log.debug("The batch conflicts with bookings saved meanwhile, its bookings are saved skipping conflicts");
+            saveSkippingConflicts(accepted, results);
+        }
 
-        return toBookingResponse(bookingRepository.save(booking));
+        return List.of(results);
     }
 
     @Override
@@ -71,7 +162,7 @@ public class BookingServiceImpl implements BookingService {
         log.trace("Searching for booking with id: {} by user with id {} has started (at service layer)", bookingId,
                 userId);
 
-        userService.findById(userId);
+        validateUserExists(userId);
         log.debug("User with id: {} is in repository", userId);
 
         Booking booking = bookingRepository.findById(bookingId).orElseThrow(() ->
@@ -89,52 +180,43 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public Collection<BookingResponse> readBookingsForOwner(Long userId, String state) {
+    public CursorPage<BookingResponse> readBookingsForOwner(Long userId, String state, String cursor, int size) {
 
         log.trace("Searching for some bookings for user-owner with id: {} has started (at service layer)", userId);
-        userService.findById(userId);
+        validateUserExists(userId);
         log.debug("User with id: {} is in repository", userId);
 
-        LocalDateTime now = LocalDateTime.now();
-        log.trace("Current Date-Time set: {}", now);
+        return readBookings(userId, BookingRole.OWNER, state, cursor, size);
+    }
 
-        List<Booking> bookings = switch (state) {
-            case "CURRENT" ->
-                    bookingRepository.findBookingsByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(userId,
-                            now, now);
-            case "PAST" -> bookingRepository.findBookingsByItemOwnerIdAndEndBeforeOrderByStartDesc(userId, now);
-            case "FUTURE" -> bookingRepository.findBookingsByItemOwnerIdAndStartAfterOrderByStartDesc(userId, now);
-            case "WAITING" -> bookingRepository.findBookingsByItemOwnerIdAndStatusOrderByStartDesc(userId, WAITING);
-            case "REJECTED" -> bookingRepository.findBookingsByItemOwnerIdAndStatusOrderByStartDesc(userId, REJECTED);
-            default -> bookingRepository.findBookingsByItemOwnerIdOrderByStartDesc(userId);
-        };
-        log.debug("Booking status set");
+    @Override
+    public CursorPage<BookingResponse> readBookingsForUser(Long userId, String state, String cursor, int size) {
+
+        log.trace("Searching for some bookings for user with id: {} has started (at service layer)", userId);
+        validateUserExists(userId);
+        log.debug("User with id: {} is in repository", userId);
 
-        return bookings.stream().map(BookingMapper::toBookingResponse).toList();
+        return readBookings(userId, BookingRole.BOOKER, state, cursor, size);
     }
 
     @Override
-    public List<BookingResponse> readBookingsForUser(Long userId, String state) {
+    public BookingStatsDto readStatsForOwner(Long userId) {
 
-        log.trace("Searching for some bookings for user with id: {} has started (at service layer)", userId);
-        userService.findById(userId);
+        log.trace("Counting bookings by state for user-owner with id: {} has started (at service layer)", userId);
+        validateUserExists(userId);
         log.debug("User with id: {} is in repository", userId);
 
-        LocalDateTime now = LocalDateTime.now();
-        log.trace("Current Date-Time set: {}", now);
+        return bookingStatsLoader.loadStats(userId, BookingRole.OWNER);
+    }
+
+    @Override
+    public BookingStatsDto readStatsForUser(Long userId) {
 
-        List<Booking> bookings = switch (state) {
-            case "CURRENT" -> bookingRepository.findBookingsByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(userId,
-                    now, now);
-            case "PAST" -> bookingRepository.findBookingsByBookerIdAndEndBeforeOrderByStartDesc(userId, now);
-            case "FUTURE" -> bookingRepository.findBookingsByBookerIdAndStartAfterOrderByStartDesc(userId, now);
-            case "WAITING" -> bookingRepository.findBookingsByBookerIdAndStatusOrderByStartDesc(userId, WAITING);
-            case "REJECTED" -> bookingRepository.findBookingsByBookerIdAndStatusOrderByStartDesc(userId, REJECTED);
-            default -> bookingRepository.findBookingsByBookerIdOrderByStartDesc(userId);
-        };
-        log.debug("Booking status set");
+        log.trace("Counting bookings by state for user with id: {} has started (at service layer)", userId);
+        validateUserExists(userId);
+        log.debug("User with id: {} is in repository", userId);
 
-        return bookings.stream().map(BookingMapper::toBookingResponse).toList();
+        return bookingStatsLoader.loadStats(userId, BookingRole.BOOKER);
     }
 
     @Override
@@ -142,15 +224,95 @@ public class BookingServiceImpl implements BookingService {
 
         log.trace("Status update of booking with id: {} has started (at service layer)", bookingId);
 
-        Booking booking = bookingRepository.findById(bookingId).orElseThrow(() ->
-                new NotFoundException(String.format("There's no booking with id: %d in repository", bookingId)));
-        log.debug("Booking with id: {} is in repository", bookingId);
+        Booking booking = validateStatusUpdate(userId, bookingId, bookingRepository.findById(bookingId).orElse(null));
 
-        if (booking.getStatus().equals(APPROVED) && approved) {
-            throw new BookingUpdateStatusException(String.format("Unable to approve the booking. " +
-                    "Booking with id: %d has already been approve", bookingId));
+        Status status = approved ? APPROVED : REJECTED;
+        if (bookingRepository.updateWaitingStatus(bookingId, booking.getVersion(), status) == 0) {
+            throw new BookingStatusConflictException(String.format("Unable to update the status. " +
+                    "Booking with id: %d has been updated concurrently", bookingId));
         }
-        log.debug("Booking is able to be approved as it hadn't been approved before");
+        booking.setStatus(status);
+        booking.setVersion(booking.getVersion() + 1);
+        log.debug("Status set");
+
+        afterStatusUpdate(List.of(booking));
+
+        return toBookingResponse(booking);
+    }
+
+    @Override
+    public List<BookingBatchResult> updateStatuses(Long userId, List<Long> bookingIds, Boolean approved) {
+
+        validateStatusUpdateRequest(bookingIds, approved);
+        log.trace("Status update of {} bookings has started (at service layer)", bookingIds.size());
+
+        Status status = approved ? APPROVED : REJECTED;
+        Map<Long, RuntimeException> failures = new HashMap<>();
+        Map<Long, Booking> updated = new HashMap<>();
+
+        transactionTemplate.executeWithoutResult(transaction -> {
+            Map<Long, Booking> bookings = bookingRepository.findAllWithItemAndBookerByIdIn(bookingIds).stream()
+                    .collect(Collectors.toMap(Booking::getId, Function.identity()));
+            log.debug("{} of {} bookings are in repository", bookings.size(), bookingIds.size());
+
+            Map<Long, Booking> waiting = new HashMap<>();
+            for (Long bookingId : new LinkedHashSet<>(bookingIds)) {
+                try {
+                    waiting.put(bookingId, validateStatusUpdate(userId, bookingId, bookings.get(bookingId)));
+                } catch (NotFoundException | AccessDeniedException | BookingStatusConflictException e) {
+                    failures.put(bookingId, e);
+                }
+            }
+            if (waiting.isEmpty()) {
+                return;
+            }
+
+            // the update bypasses the persistence context, so it is flushed before and detached after it
+            entityManager.flush();
+            List<Long> updatedIds = bookingQueryRepository.updateWaitingStatuses(userId, waiting.keySet(), status);
+            entityManager.clear();
+            updatedIds.forEach(bookingId -> updated.put(bookingId, waiting.remove(bookingId)));
+            waiting.keySet().forEach(bookingId -> failures.put(bookingId, new BookingStatusConflictException(
+                    String.format("Unable to update the status. " +
+                            "Booking with id: %d has been updated concurrently", bookingId))));
+            log.debug("Status of {} bookings set", updated.size());
+        });
+
+        updated.values().forEach(booking -> {
+            booking.setStatus(status);
+            booking.setVersion(booking.getVersion() + 1);
+        });
+        afterStatusUpdate(updated.values());
+
+        List<BookingBatchResult> results = new ArrayList<>(bookingIds.size());
+        for (int i = 0; i < bookingIds.size(); i++) {
+            Booking booking = updated.get(bookingIds.get(i));
+            results.add(booking == null ? rejected(i, failures.get(bookingIds.get(i))) : BookingBatchResult.builder()
+                    .index(i)
+                    .status(HttpStatus.OK.value())
+                    .booking(toBookingResponse(booking))
+                    .build());
+        }
+        return results;
+    }
+
+    private void validateStatusUpdateRequest(List<Long> bookingIds, Boolean approved) {
+        if (approved == null) {
+            throw new BookingUpdateStatusException("Approved parameter is required");
+        }
+        if (bookingIds == null || bookingIds.isEmpty()) {
+            throw new BookingUpdateStatusException("List of booking ids must not be empty");
+        }
+        if (bookingIds.stream().anyMatch(Objects::isNull)) {
+            throw new BookingUpdateStatusException("List of booking ids must not contain nulls");
+        }
+    }
+
+    private Booking validateStatusUpdate(Long userId, Long bookingId, Booking booking) {
+        if (booking == null) {
+            throw new NotFoundException(String.format("There's no booking with id: %d in repository", bookingId));
+        }
+        log.debug("Booking with id: {} is in repository", bookingId);
 
         if (!Objects.equals(userId, booking.getItem().getOwner().getId())) {
             throw new AccessDeniedException(String.format("Status update denied. " +
@@ -158,14 +320,250 @@ public class BookingServiceImpl implements BookingService {
         }
         log.debug("User has rights to update status of booking");
 
-        if (approved) {
-            booking.setStatus(APPROVED);
-        } else {
-            booking.setStatus(REJECTED);
+        if (booking.getStatus() != WAITING) {
+            throw new BookingStatusConflictException(String.format("Unable to update the status. " +
+                    "Booking with id: %d has already been %s", bookingId, booking.getStatus().name().toLowerCase()));
         }
+        log.debug("Booking is able to be approved or rejected as it is still waiting");
+        return booking;
+    }
 
-        log.debug("Status set");
+    private void afterStatusUpdate(Collection<Booking> bookings) {
+        bookings.stream()
+                .filter(booking -> booking.getStatus() == REJECTED)
+                .forEach(bookingAvailabilityIndex::remove);
+        bookings.forEach(booking -> itemAvailabilityCalendar.evict(booking.getItem().getId(),
+                booking.getStart(), booking.getEnd()));
+        Set<Long> itemIds = bookings.stream()
+                .map(booking -> booking.getItem().getId())
+                .collect(Collectors.toSet());
+        itemBookingPointerService.refreshAll(itemIds);
+        itemIds.forEach(itemDetailsLoader::evictBookings);
+        bookings.forEach(bookingStatsLoader::evict);
+    }
+
+    private CursorPage<BookingResponse> readBookings(Long userId,
+                                                     BookingRole role,
+                                                     String state,
+                                                     String cursor,
+                                                     int size) {
+        LocalDateTime now = LocalDateTime.now();
+        log.trace("Current Date-Time set: {}", now);
+
+        int limit = CursorPage.limit(size);
+        BookingQuery.BookingQueryBuilder query = BookingQuery.builder()
+                .userId(userId)
+                .role(role)
+                .state(BookingState.from(state))
+                .now(now)
+                .limit(limit + 1)
+                .periodMode(periodMode);
+
+        if (cursor != null) {
+            long[] position = Cursor.decode(cursor, 2);
+            query.afterStart(EPOCH.plus(position[0], ChronoUnit.MICROS)).afterId(position[1]);
+        }
+
+        List<BookingResponse> bookings = bookingQueryRepository.find(query.build());
+        log.debug("Found {} bookings of user with id: {} as {}", bookings.size(), userId, role);
+
+        return CursorPage.of(bookings, limit, booking -> Cursor.encode(
+                ChronoUnit.MICROS.between(EPOCH, booking.getStart().truncatedTo(ChronoUnit.MICROS)),
+                booking.getId()));
+    }
+
+    private Map<Integer, Booking> validateAll(Long userId,
+                                              User user,
+                                              Map<Long, Item> items,
+                                              List<BookingDto> bookingDtos,
+                                              BookingBatchResult[] results) {
+        Map<Long, IntervalTree> batchPeriods = new HashMap<>();
+        Map<Long, IntervalTree> storedPeriods = lockMode == ItemBookingLockMode.ADVISORY
+                ? findStoredPeriods(items.keySet(), bookingDtos)
+                : null;
+        Map<Integer, Booking> accepted = new LinkedHashMap<>();
+
+        for (int i = 0; i < bookingDtos.size(); i++) {
+            BookingDto bookingDto = bookingDtos.get(i);
+            try {
+                Item item = items.get(bookingDto.getItemId());
+                if (item == null) {
+                    throw new NotFoundException(String.format("There's no item with id: %d in repository",
+                            bookingDto.getItemId()));
+                }
+                validateBookingPeriod(bookingDto);
+                validateItemCanBeBooked(userId, item);
+
+                IntervalTree itemPeriods = batchPeriods.computeIfAbsent(item.getId(), id -> new IntervalTree());
+                if (itemPeriods.overlaps(bookingDto.getStart(), bookingDto.getEnd())) {
+                    throw new BookingDeniedException("Booking overlaps another booking of the same item in the batch");
+                }
+                if (storedPeriods == null) {
+                    validateItemIsFree(item.getId(), bookingDto.getStart(), bookingDto.getEnd());
+                } else if (storedPeriods.getOrDefault(item.getId(), new IntervalTree())
+                        .overlaps(bookingDto.getStart(), bookingDto.getEnd())) {
+                    throw new BookingDeniedException("Item is already booked for the requested period");
+                }
+                itemPeriods.insert(i, bookingDto.getStart(), bookingDto.getEnd());
+
+                Booking booking = toBooking(bookingDto);
+                booking.setBooker(user);
+                booking.setItem(item);
+                booking.setStatus(WAITING);
+                accepted.put(i, booking);
+            } catch (NotFoundException e) {
+                results[i] = rejected(i, HttpStatus.NOT_FOUND, "Search was failed", e.getMessage());
+            } catch (BookingDeniedException e) {
+                results[i] = rejected(i, HttpStatus.BAD_REQUEST, "Something went wrong with booking", e.getMessage());
+            }
+        }
+        log.debug("{} of {} bookings passed validation", accepted.size(), bookingDtos.size());
+        return accepted;
+    }
+
+    private Map<Long, IntervalTree> findStoredPeriods(Collection<Long> itemIds, List<BookingDto> bookingDtos) {
+        Map<Long, IntervalTree> periods = new HashMap<>();
+        List<BookingDto> dated = bookingDtos.stream()
+                .filter(bookingDto -> bookingDto.getStart() != null && bookingDto.getEnd() != null)
+                .toList();
+        if (itemIds.isEmpty() || dated.isEmpty()) {
+            return periods;
+        }
+
+        LocalDateTime from = dated.stream().map(BookingDto::getStart).min(Comparator.naturalOrder()).orElseThrow();
+        LocalDateTime to = dated.stream().map(BookingDto::getEnd).max(Comparator.naturalOrder()).orElseThrow();
+        bookingRepository.findAllByItemIdInAndStatusInAndStartBeforeAndEndAfter(itemIds, BLOCKING_STATUSES, to, from)
+                .forEach(booking -> periods.computeIfAbsent(booking.getItem().getId(), id -> new IntervalTree())
+                        .insert(booking.getId(), booking.getStart(), booking.getEnd()));
+        return periods;
+    }
+
+    private void saveAll(Map<Integer, Booking> accepted, BookingBatchResult[] results) {
+        List<Booking> savedBookings = saveBookings(List.copyOf(accepted.values()));
+        afterSave(accepted.keySet(), savedBookings, results);
+    }
+
+    // The database is the only judge of a conflict here, so the bookings are saved without the item locks in one
+    // batch that leaves out those its exclusion constraint rejects.
+    private void saveSkippingConflicts(Map<Integer, Booking> accepted, BookingBatchResult[] results) {
+        List<Integer> indexes = List.copyOf(accepted.keySet());
+        List<Booking> bookings = List.copyOf(accepted.values());
+        List<Long> ids = transactionTemplate.execute(transaction ->
+                bookingQueryRepository.insertWaitingSkippingConflicts(bookings));
+
+        List<Integer> savedIndexes = new ArrayList<>();
+        List<Booking> savedBookings = new ArrayList<>();
+        for (int i = 0; i < bookings.size(); i++) {
+            Booking booking = bookings.get(i);
+            if (ids.get(i) == null) {
+                results[indexes.get(i)] = rejected(indexes.get(i), HttpStatus.BAD_REQUEST,
+                        "Something went wrong with booking", "Item is already booked for the requested period");
+                continue;
+            }
+            booking.setId(ids.get(i));
+            booking.setVersion(0L);
+            savedIndexes.add(indexes.get(i));
+            savedBookings.add(booking);
+        }
+        log.debug("{} of {} bookings were saved skipping conflicts", savedBookings.size(), accepted.size());
+        afterSave(savedIndexes, savedBookings, results);
+    }
+
+    private void afterSave(Collection<Integer> indexes, List<Booking> savedBookings, BookingBatchResult[] results) {
+        Iterator<Booking> saved = savedBookings.iterator();
+        for (Integer index : indexes) {
+            results[index] = BookingBatchResult.builder()
+                    .index(index)
+                    .status(HttpStatus.CREATED.value())
+                    .booking(toBookingResponse(saved.next()))
+                    .build();
+        }
+
+        Set<Long> itemIds = savedBookings.stream()
+                .map(booking -> booking.getItem().getId())
+                .collect(Collectors.toSet());
+        itemBookingPointerService.refreshAll(itemIds);
+        afterCommit(() -> {
+            savedBookings.forEach(bookingAvailabilityIndex::add);
+            savedBookings.forEach(booking -> itemAvailabilityCalendar.evict(booking.getItem().getId(),
+                    booking.getStart(), booking.getEnd()));
+            itemIds.forEach(itemDetailsLoader::evictBookings);
+            savedBookings.forEach(bookingStatsLoader::evict);
+        });
+    }
+
+    private void validateItemCanBeBooked(Long userId, Item item) {
+        if (!item.getAvailable()) {
+            throw new BookingDeniedException("Item is not available for booking. It had been already booked");
+        }
+        log.debug("The item has available status for booking");
+
+        if (Objects.equals(item.getOwner().getId(), userId)) {
+            throw new BookingDeniedException("It's not available to book your own item");
+        }
+        log.debug("The user has roots to book the item");
+    }
+
+    private void validateUserExists(Long userId) {
+        if (!userExistenceCache.exists(userId)) {
+            throw new NotFoundException(String.format("User with id = %d is not in repository", userId));
+        }
+    }
+
+    // Advisory locks mean several nodes book the same items, and the index only knows the bookings of this node. The
+    // partitions' exclusion constraints miss overlaps across months too, so the database is asked under the lock.
+    private void validateItemIsFree(Long itemId, LocalDateTime start, LocalDateTime end) {
+        boolean free = lockMode == ItemBookingLockMode.ADVISORY
+                ? !bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(itemId, BLOCKING_STATUSES,
+                        end, start)
+                : bookingAvailabilityIndex.isAvailable(itemId, start, end);
+        if (!free) {
+            throw new BookingDeniedException("Item is already booked for the requested period");
+        }
+        log.debug("Item with id: {} is free from {} to {}", itemId, start, end);
+    }
+
+    private List<Booking> saveBookings(List<Booking> bookings) {
+        try {
+            return bookingRepository.saveAllAndFlush(bookings);
+        } catch (DataIntegrityViolationException e) {
+            String message = e.getMostSpecificCause().getMessage();
+            if (message != null && message.contains(BOOKING_PERIOD_CONSTRAINT)) {
+                throw new BookingDeniedException("Item is already booked for the requested period");
+            }
+            throw e;
+        }
+    }
+
+    private void validateBookingPeriod(BookingDto bookingDto) {
+        if (bookingDto.getStart() == null || bookingDto.getEnd() == null) {
+            throw new BookingDeniedException("Booking start and end must be set");
+        }
+
+        if (!bookingDto.getEnd().isAfter(bookingDto.getStart())) {
+            throw new BookingDeniedException("Booking end must be after its start");
+        }
+
+        if (bookingDto.getStart().isBefore(LocalDateTime.now())) {
+            throw new BookingDeniedException("Booking can't start in the past");
+        }
+    }
+
+    private BookingBatchResult rejected(int index, RuntimeException e) {
+        if (e instanceof NotFoundException) {
+            return rejected(index, HttpStatus.NOT_FOUND, "Search was failed", e.getMessage());
+        }
+        if (e instanceof AccessDeniedException) {
+            return rejected(index, HttpStatus.FORBIDDEN, "Access exception", e.getMessage());
+        }
+        return rejected(index, HttpStatus.CONFLICT, "Booking conflict", e.getMessage());
+    }
 
-        return toBookingResponse(bookingRepository.save(booking));
+    private BookingBatchResult rejected(int index, HttpStatus status, String error, String description) {
+        return BookingBatchResult.builder()
+                .index(index)
+                .status(status.value())
+                .error(new ErrorResponse(error, description))
+                .build();
     }
 }
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.booking.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+import static ru.practicum.shareit.booking.service.BookingStatsLoader.BOOKING_STATS_CACHE;
+
+/**
+ * Counts by state drift as bookings become current or past, so the stats cache gets its own, much shorter TTL than
+ * the rest of the caches.
+ */
+@Component
+public class BookingStatsCacheCustomizer implements CacheManagerCustomizer<CaffeineCacheManager> {
+
+    @Value("${shareit.booking.stats.cache-ttl:0s}")
+    private Duration ttl;
+
+    @Value("${shareit.booking.stats.cache-size:10000}")
+    private long maximumSize;
+
+    @Override
+    public void customize(CaffeineCacheManager cacheManager) {
+        cacheManager.registerCustomCache(BOOKING_STATS_CACHE, Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build());
+    }
+}
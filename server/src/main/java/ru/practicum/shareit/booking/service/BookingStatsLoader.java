@@ -0,0 +1,38 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingStatsDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.repository.BookingQueryRepository;
+
+import java.time.LocalDateTime;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingStatsLoader {
+    public static final String BOOKING_STATS_CACHE = "bookingStats";
+
+    private final BookingQueryRepository bookingQueryRepository;
+
+    @Cacheable(cacheNames = BOOKING_STATS_CACHE, key = "#role.name() + ':' + #userId", sync = true)
+    public BookingStatsDto loadStats(Long userId, BookingRole role) {
+        log.trace("Loading booking stats of user with id: {} as {}", userId, role);
+        return bookingQueryRepository.countByState(userId, role, LocalDateTime.now());
+    }
+
+    @Caching(evict = {
+            @CacheEvict(cacheNames = BOOKING_STATS_CACHE, key = "'BOOKER:' + #booking.booker.id"),
+            @CacheEvict(cacheNames = BOOKING_STATS_CACHE, key = "'OWNER:' + #booking.item.owner.id")
+    })
+    public void evict(Booking booking) {
+        log.debug("Booking stats of the booker and the owner of booking with id: {} are evicted from cache",
+                booking.getId());
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.budget;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Maximum number of SQL queries and write round trips a service method may issue per call, regardless of the size of
+ * the data it reads or writes.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+
+    int queries();
+
+    /**
+     * Write round trips, where a JDBC batch or a COPY counts once. Methods that only read keep the default.
+     */
+    int writes() default 0;
+}
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.exception;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -33,6 +34,20 @@ public class ErrorHandler {
         return new ErrorResponse("Something went wrong with booking", e.getMessage());
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handlePaginationException(final PaginationException e) {
+        log.error("PaginationException was thrown");
+        return new ErrorResponse("Pagination exception", e.getMessage());
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleInvalidPeriodException(final InvalidPeriodException e) {
+        log.error("InvalidPeriodException was thrown");
+        return new ErrorResponse("Invalid period", e.getMessage());
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.CONFLICT)
     public ErrorResponse handleConflictException(final UserEmailNotUniqueException e) {
@@ -40,6 +55,14 @@ public class ErrorHandler {
         return new ErrorResponse("Conflict exception", e.getMessage());
     }
 
+    @ExceptionHandler({BookingStatusConflictException.class,
+            OptimisticLockingFailureException.class})
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleBookingConflictException(final RuntimeException e) {
+        log.error("Booking conflict exception was thrown");
+        return new ErrorResponse("Booking conflict", e.getMessage());
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ErrorResponse handleOtherExceptions(final Exception e) {
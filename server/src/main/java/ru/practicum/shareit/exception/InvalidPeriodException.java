@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exception;
+
+public class InvalidPeriodException extends RuntimeException {
+    public InvalidPeriodException(String message) {
+        super(message);
+    }
+}
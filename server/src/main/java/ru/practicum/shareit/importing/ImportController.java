@@ -0,0 +1,44 @@
+package ru.practicum.shareit.importing;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.importing.dto.ImportJobDto;
+import ru.practicum.shareit.importing.model.ImportFormat;
+import ru.practicum.shareit.importing.service.ImportService;
+
+import java.io.IOException;
+
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/imports")
+public class ImportController {
+    private final ImportService importService;
+
+    @PostMapping(value = "/users", consumes = {MediaType.APPLICATION_NDJSON_VALUE, ImportFormat.TEXT_CSV_VALUE})
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ImportJobDto importUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                    HttpServletRequest request) throws IOException {
+        log.trace("Import of users in {} is started", contentType);
+        return importService.importUsers(ImportFormat.of(contentType), request.getInputStream());
+    }
+
+    @PostMapping(value = "/items", consumes = {MediaType.APPLICATION_NDJSON_VALUE, ImportFormat.TEXT_CSV_VALUE})
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ImportJobDto importItems(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                    HttpServletRequest request) throws IOException {
+        log.trace("Import of items in {} is started", contentType);
+        return importService.importItems(ImportFormat.of(contentType), request.getInputStream());
+    }
+
+    @GetMapping("/{id}")
+    public ImportJobDto read(@PathVariable Long id) {
+        log.trace("Getting import job by id: {} is started", id);
+        return importService.findById(id);
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.importing;
+
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.importing.dto.ImportJobDto;
+import ru.practicum.shareit.importing.model.ImportJob;
+
+@Component
+public class ImportJobMapper {
+    public static ImportJobDto toImportJobDto(ImportJob job) {
+        long imported = job.getImported().get();
+        long failed = job.getFailed().get();
+        return ImportJobDto.builder()
+                .id(job.getId())
+                .type(job.getType())
+                .format(job.getFormat())
+                .status(job.getStatus())
+                .processed(imported + failed)
+                .imported(imported)
+                .failed(failed)
+                .started(job.getStarted())
+                .finished(job.getFinished())
+                .error(job.getError())
+                .errors(job.getErrors())
+                .build();
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.importing.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+import ru.practicum.shareit.importing.model.ImportFormat;
+import ru.practicum.shareit.importing.model.ImportStatus;
+import ru.practicum.shareit.importing.model.ImportType;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Builder
+@Getter
+@ToString
+@EqualsAndHashCode
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ImportJobDto {
+
+    private final Long id;
+
+    private final ImportType type;
+
+    private final ImportFormat format;
+
+    private final ImportStatus status;
+
+    private final long processed;
+
+    private final long imported;
+
+    private final long failed;
+
+    private final LocalDateTime started;
+
+    private final LocalDateTime finished;
+
+    private final String error;
+
+    private final List<ImportRowError> errors;
+}
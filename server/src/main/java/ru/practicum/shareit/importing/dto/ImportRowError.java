@@ -0,0 +1,14 @@
+package ru.practicum.shareit.importing.dto;
+
+import lombok.*;
+
+@Builder
+@Getter
+@ToString
+@EqualsAndHashCode
+public class ImportRowError {
+
+    private final long line;
+
+    private final String description;
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.importing.model;
+
+import org.springframework.http.MediaType;
+
+public enum ImportFormat {
+    NDJSON,
+    CSV;
+
+    public static final String TEXT_CSV_VALUE = "text/csv";
+
+    public static ImportFormat of(MediaType mediaType) {
+        return MediaType.parseMediaType(TEXT_CSV_VALUE).isCompatibleWith(mediaType) ? CSV : NDJSON;
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.importing.model;
+
+import lombok.Getter;
+import ru.practicum.shareit.importing.dto.ImportRowError;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Getter
+public class ImportJob {
+    private final Long id;
+    private final ImportType type;
+    private final ImportFormat format;
+    private final int maxErrors;
+    private final LocalDateTime started = LocalDateTime.now();
+    private final AtomicLong imported = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final List<ImportRowError> errors = new ArrayList<>();
+
+    private volatile ImportStatus status = ImportStatus.RUNNING;
+    private volatile LocalDateTime finished;
+    private volatile String error;
+
+    public ImportJob(Long id, ImportType type, ImportFormat format, int maxErrors) {
+        this.id = id;
+        this.type = type;
+        this.format = format;
+        this.maxErrors = maxErrors;
+    }
+
+    public void imported(int count) {
+        imported.addAndGet(count);
+    }
+
+    public void reject(ImportRowError rowError) {
+        failed.incrementAndGet();
+        synchronized (errors) {
+            if (errors.size() < maxErrors) {
+                errors.add(rowError);
+            }
+        }
+    }
+
+    public void complete() {
+        finished = LocalDateTime.now();
+        status = ImportStatus.COMPLETED;
+    }
+
+    public void abort(String error) {
+        this.error = error;
+        finished = LocalDateTime.now();
+        status = ImportStatus.FAILED;
+    }
+
+    public List<ImportRowError> getErrors() {
+        synchronized (errors) {
+            return List.copyOf(errors);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.importing.model;
+
+public enum ImportStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
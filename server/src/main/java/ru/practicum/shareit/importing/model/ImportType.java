@@ -0,0 +1,6 @@
+package ru.practicum.shareit.importing.model;
+
+public enum ImportType {
+    USERS,
+    ITEMS
+}
@@ -0,0 +1,139 @@
+package ru.practicum.shareit.importing.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ru.practicum.shareit.importing.model.ImportFormat;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+class ImportRecordReader<T> implements Iterator<ImportRow<T>>, Closeable {
+    private final BufferedReader reader;
+    private final ImportFormat format;
+    private final Class<T> type;
+    private final ObjectMapper objectMapper;
+
+    private List<String> header;
+    private long line;
+    private String next;
+
+    ImportRecordReader(BufferedReader reader, ImportFormat format, Class<T> type, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.format = format;
+        this.type = type;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next != null) {
+            return true;
+        }
+
+        try {
+            String text;
+            while ((text = reader.readLine()) != null) {
+                line++;
+                if (text.isBlank()) {
+                    continue;
+                }
+                if (format == ImportFormat.CSV && header == null) {
+                    header = split(text);
+                    continue;
+                }
+                next = text;
+                return true;
+            }
+            return false;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public ImportRow<T> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        String text = next;
+        next = null;
+        return format == ImportFormat.CSV ? readCsv(text) : readJson(text);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private ImportRow<T> readJson(String text) {
+        try {
+            return ImportRow.of(line, objectMapper.readValue(text, type));
+        } catch (JsonProcessingException e) {
+            return ImportRow.invalid(line, "Malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private ImportRow<T> readCsv(String text) {
+        if (header == null) {
+            return ImportRow.invalid(line, "CSV header is missing");
+        }
+
+        List<String> values = split(text);
+        if (values == null || values.size() != header.size()) {
+            return ImportRow.invalid(line, String.format("Malformed CSV: %d columns are expected", header.size()));
+        }
+
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String value = values.get(i);
+            fields.put(header.get(i), value.isEmpty() ? null : value);
+        }
+        try {
+            return ImportRow.of(line, objectMapper.convertValue(fields, type));
+        } catch (IllegalArgumentException e) {
+            return ImportRow.invalid(line, "Malformed CSV: " + e.getMessage());
+        }
+    }
+
+    private static List<String> split(String text) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString().trim());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+
+        if (quoted) {
+            return null;
+        }
+        values.add(value.toString().trim());
+        return values;
+    }
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.importing.service;
+
+import ru.practicum.shareit.importing.dto.ImportRowError;
+
+record ImportRow<T>(long line, T value, String error) {
+
+    static <T> ImportRow<T> of(long line, T value) {
+        return new ImportRow<>(line, value, null);
+    }
+
+    static <T> ImportRow<T> invalid(long line, String error) {
+        return new ImportRow<>(line, null, error);
+    }
+
+    ImportRowError reject(String description) {
+        return ImportRowError.builder().line(line).description(description).build();
+    }
+}
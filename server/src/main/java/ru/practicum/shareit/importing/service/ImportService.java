@@ -0,0 +1,15 @@
+package ru.practicum.shareit.importing.service;
+
+import ru.practicum.shareit.importing.dto.ImportJobDto;
+import ru.practicum.shareit.importing.model.ImportFormat;
+
+import java.io.InputStream;
+
+public interface ImportService {
+
+    ImportJobDto importUsers(ImportFormat format, InputStream body);
+
+    ImportJobDto importItems(ImportFormat format, InputStream body);
+
+    ImportJobDto findById(Long id);
+}
@@ -0,0 +1,230 @@
+package ru.practicum.shareit.importing.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.importing.dto.ImportJobDto;
+import ru.practicum.shareit.importing.dto.ImportRowError;
+import ru.practicum.shareit.importing.model.ImportFormat;
+import ru.practicum.shareit.importing.model.ImportJob;
+import ru.practicum.shareit.importing.model.ImportStatus;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static ru.practicum.shareit.importing.ImportJobMapper.toImportJobDto;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ImportServiceImpl implements ImportService {
+    private final UserRecordImporter userRecordImporter;
+    private final ItemRecordImporter itemRecordImporter;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicLong ids = new AtomicLong();
+
+    @Value("${shareit.import.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${shareit.import.threads:2}")
+    private int threads;
+
+    @Value("${shareit.import.max-errors:1000}")
+    private int maxErrors;
+
+    @Value("${shareit.import.max-jobs:100}")
+    private long maxJobs;
+
+    @Value("${shareit.import.job-retention:1h}")
+    private Duration jobRetention;
+
+    private Cache<Long, ImportJob> jobs;
+    private ExecutorService executor;
+
+    @PostConstruct
+    void init() {
+        // Running jobs weigh nothing and never expire, so only finished ones are evicted. A job is put again once it
+        // finishes, which weighs it and starts its retention.
+        jobs = Caffeine.newBuilder()
+                .maximumWeight(maxJobs)
+                .weigher((Long id, ImportJob job) -> job.getStatus() == ImportStatus.RUNNING ? 0 : 1)
+                .expireAfter(new Expiry<Long, ImportJob>() {
+                    @Override
+                    public long expireAfterCreate(Long id, ImportJob job, long currentTime) {
+                        return job.getStatus() == ImportStatus.RUNNING ? Long.MAX_VALUE : jobRetention.toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long id, ImportJob job, long currentTime, long currentDuration) {
+                        return expireAfterCreate(id, job, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long id, ImportJob job, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        executor = Executors.newFixedThreadPool(threads, Thread.ofPlatform().name("import-", 1).factory());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public ImportJobDto importUsers(ImportFormat format, InputStream body) {
+        log.trace("Import of users has started (at service layer)");
+        return start(userRecordImporter, format, body);
+    }
+
+    @Override
+    public ImportJobDto importItems(ImportFormat format, InputStream body) {
+        log.trace("Import of items has started (at service layer)");
+        return start(itemRecordImporter, format, body);
+    }
+
+    @Override
+    public ImportJobDto findById(Long id) {
+        log.trace("Searching for import job with id: {} has started (at service layer)", id);
+        ImportJob job = jobs.getIfPresent(id);
+        if (job == null) {
+            throw new NotFoundException(String.format("Import job with id = %d is not found", id));
+        }
+        return toImportJobDto(job);
+    }
+
+    private <T> ImportJobDto start(RecordImporter<T> importer, ImportFormat format, InputStream body) {
+        Path file = spool(body);
+        ImportJob job = new ImportJob(ids.incrementAndGet(), importer.type(), format, maxErrors);
+        jobs.put(job.getId(), job);
+        executor.execute(() -> run(job, importer, file));
+        log.debug("Import job with id: {} of {} in {} is queued", job.getId(), importer.type(), format);
+        return toImportJobDto(job);
+    }
+
+    private <T> void run(ImportJob job, RecordImporter<T> importer, Path file) {
+        long started = System.nanoTime();
+        try {
+            try {
+                read(job, importer, file);
+            } finally {
+                // Batches written before a failure stay committed, so they have to be completed as well.
+                if (job.getImported().get() > 0) {
+                    importer.complete();
+                }
+            }
+            job.complete();
+            log.info("Import job with id: {} is completed: {} rows were imported, {} rows were rejected",
+                    job.getId(), job.getImported().get(), job.getFailed().get());
+        } catch (Exception e) {
+            job.abort(e.getMessage());
+            log.error("Import job with id: {} has failed", job.getId(), e);
+        } finally {
+            jobs.put(job.getId(), job);
+            meterRegistry.timer("shareit.import.run", "type", job.getType().name(), "status", job.getStatus().name())
+                    .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            delete(file);
+        }
+    }
+
+    private <T> void read(ImportJob job, RecordImporter<T> importer, Path file) throws IOException {
+        try (ImportRecordReader<T> reader = new ImportRecordReader<>(Files.newBufferedReader(file,
+                StandardCharsets.UTF_8), job.getFormat(), importer.recordType(), objectMapper)) {
+            List<ImportRow<T>> batch = new ArrayList<>(batchSize);
+            while (reader.hasNext()) {
+                ImportRow<T> row = reader.next();
+                String error = row.error() != null ? row.error() : importer.validate(row.value());
+                if (error != null) {
+                    reject(job, row.reject(error));
+                } else {
+                    batch.add(row);
+                }
+
+                if (batch.size() == batchSize) {
+                    flush(job, importer, batch);
+                    batch.clear();
+                }
+            }
+            flush(job, importer, batch);
+        }
+    }
+
+    private <T> void flush(ImportJob job, RecordImporter<T> importer, List<ImportRow<T>> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        List<ImportRowError> rejected;
+        try {
+            rejected = transactionTemplate.execute(status -> importer.write(batch));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Batch of import job with id: {} has conflicted with concurrent writes and is retried",
+                    job.getId());
+            rejected = transactionTemplate.execute(status -> importer.write(batch));
+        }
+
+        int imported = batch.size() - rejected.size();
+        job.imported(imported);
+        meterRegistry.counter("shareit.import.rows", "type", job.getType().name(), "outcome", "imported")
+                .increment(imported);
+        rejected.forEach(rowError -> reject(job, rowError));
+        log.debug("Batch of import job with id: {} is written: {} rows were imported, {} rows were rejected",
+                job.getId(), imported, rejected.size());
+    }
+
+    private void reject(ImportJob job, ImportRowError rowError) {
+        job.reject(rowError);
+        meterRegistry.counter("shareit.import.rows", "type", job.getType().name(), "outcome", "rejected")
+                .increment();
+    }
+
+    private static Path spool(InputStream body) {
+        Path file = null;
+        try {
+            file = Files.createTempFile("shareit-import-", ".tmp");
+            Files.copy(body, file, StandardCopyOption.REPLACE_EXISTING);
+            return file;
+        } catch (IOException e) {
+            if (file != null) {
+                delete(file);
+            }
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Import file {} was not deleted", file, e);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.importing.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.List;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+class ImportWriter {
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    long write(String table, String sequence, List<String> columns, List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        Long copied = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            if (!connection.isWrapperFor(PGConnection.class)) {
+                return null;
+            }
+            String sql = String.format("COPY %s (%s) FROM STDIN WITH (FORMAT csv)", table, String.join(", ", columns));
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql, new StringReader(toCsv(rows)));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        if (copied != null) {
+            log.debug("{} rows were copied into {}", copied, table);
+            return copied;
+        }
+
+        String nextId = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect()
+                .getSequenceSupport().getSelectSequenceNextValString(sequence);
+        String sql = String.format("INSERT INTO %s (id, %s) VALUES (%s, %s)", table, String.join(", ", columns),
+                nextId, String.join(", ", Collections.nCopies(columns.size(), "?")));
+        jdbcTemplate.batchUpdate(sql, rows);
+        log.debug("{} rows were inserted into {} in a batch", rows.size(), table);
+        return rows.size();
+    }
+
+    private static String toCsv(List<Object[]> rows) {
+        StringBuilder csv = new StringBuilder();
+        for (Object[] row : rows) {
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) {
+                    csv.append(',');
+                }
+                if (row[i] instanceof String value) {
+                    csv.append('"').append(value.replace("\"", "\"\"")).append('"');
+                } else if (row[i] != null) {
+                    csv.append(row[i]);
+                }
+            }
+            csv.append('\n');
+        }
+        return csv.toString();
+    }
+}
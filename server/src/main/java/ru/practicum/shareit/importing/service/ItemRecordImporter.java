@@ -0,0 +1,99 @@
+package ru.practicum.shareit.importing.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.importing.dto.ImportRowError;
+import ru.practicum.shareit.importing.model.ImportType;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+@Component
+@RequiredArgsConstructor
+class ItemRecordImporter implements RecordImporter<ItemDto> {
+    private static final int MAX_NAME_LENGTH = 50;
+    private static final int MAX_DESCRIPTION_LENGTH = 255;
+
+    private final UserRepository userRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ImportWriter importWriter;
+
+    @Override
+    public ImportType type() {
+        return ImportType.ITEMS;
+    }
+
+    @Override
+    public Class<ItemDto> recordType() {
+        return ItemDto.class;
+    }
+
+    @Override
+    public String validate(ItemDto item) {
+        if (item.getName() == null || item.getName().isBlank()) {
+            return "Item name is empty";
+        }
+        if (item.getName().length() > MAX_NAME_LENGTH) {
+            return "Item name is longer than " + MAX_NAME_LENGTH + " characters";
+        }
+        if (item.getDescription() == null || item.getDescription().isBlank()) {
+            return "Item description is empty";
+        }
+        if (item.getDescription().length() > MAX_DESCRIPTION_LENGTH) {
+            return "Item description is longer than " + MAX_DESCRIPTION_LENGTH + " characters";
+        }
+        if (item.getAvailable() == null) {
+            return "Item availability is not set";
+        }
+        if (item.getOwner() == null) {
+            return "Item owner is not set";
+        }
+        return null;
+    }
+
+    @Override
+    public List<ImportRowError> write(List<ImportRow<ItemDto>> rows) {
+        Set<Long> owners = new HashSet<>(userRepository.findExistingIds(rows.stream()
+                .map(row -> row.value().getOwner())
+                .toList()));
+        List<Long> requestIds = rows.stream()
+                .map(row -> row.value().getRequestId())
+                .filter(Objects::nonNull)
+                .toList();
+        Set<Long> requests = requestIds.isEmpty()
+                ? Set.of()
+                : new HashSet<>(itemRequestRepository.findExistingIds(requestIds));
+
+        List<ImportRowError> rejected = new ArrayList<>();
+        List<Object[]> accepted = new ArrayList<>();
+        for (ImportRow<ItemDto> row : rows) {
+            ItemDto item = row.value();
+            if (!owners.contains(item.getOwner())) {
+                rejected.add(row.reject(String.format("User with id = %d is not in repository", item.getOwner())));
+            } else if (item.getRequestId() != null && !requests.contains(item.getRequestId())) {
+                rejected.add(row.reject(String.format("Request with id = %d is not in repository",
+                        item.getRequestId())));
+            } else {
+                accepted.add(new Object[]{item.getName(), item.getDescription(), item.getAvailable(),
+                        item.getOwner(), item.getRequestId()});
+            }
+        }
+
+        importWriter.write("items", "items_seq",
+                List.of("name", "description", "is_available", "owner_id", "request_id"), accepted);
+        return rejected;
+    }
+
+    @Override
+    public void complete() {
+        itemSearchIndex.rebuild();
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.importing.service;
+
+import ru.practicum.shareit.importing.dto.ImportRowError;
+import ru.practicum.shareit.importing.model.ImportType;
+
+import java.util.List;
+
+interface RecordImporter<T> {
+
+    ImportType type();
+
+    Class<T> recordType();
+
+    String validate(T value);
+
+    List<ImportRowError> write(List<ImportRow<T>> rows);
+
+    default void complete() {
+    }
+}
@@ -0,0 +1,78 @@
+package ru.practicum.shareit.importing.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.importing.dto.ImportRowError;
+import ru.practicum.shareit.importing.model.ImportType;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+@Component
+@RequiredArgsConstructor
+class UserRecordImporter implements RecordImporter<UserDto> {
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+    private static final int MAX_LENGTH = 255;
+
+    private final UserRepository userRepository;
+    private final UserExistenceCache userExistenceCache;
+    private final ImportWriter importWriter;
+
+    @Override
+    public ImportType type() {
+        return ImportType.USERS;
+    }
+
+    @Override
+    public Class<UserDto> recordType() {
+        return UserDto.class;
+    }
+
+    @Override
+    public String validate(UserDto user) {
+        if (user.getName() == null || user.getName().isBlank()) {
+            return "User name is empty";
+        }
+        if (user.getName().length() > MAX_LENGTH) {
+            return "User name is longer than " + MAX_LENGTH + " characters";
+        }
+        if (user.getEmail() == null || !EMAIL.matcher(user.getEmail()).matches()
+                || user.getEmail().length() > MAX_LENGTH) {
+            return "User email: " + user.getEmail() + " is not valid";
+        }
+        return null;
+    }
+
+    @Override
+    public List<ImportRowError> write(List<ImportRow<UserDto>> rows) {
+        Set<String> registered = new HashSet<>(userRepository.findEmailsByEmailIn(rows.stream()
+                .map(row -> row.value().getEmail())
+                .toList()));
+
+        List<ImportRowError> rejected = new ArrayList<>();
+        Set<String> emails = new HashSet<>();
+        List<Object[]> accepted = new ArrayList<>();
+        for (ImportRow<UserDto> row : rows) {
+            String email = row.value().getEmail();
+            if (registered.contains(email)) {
+                rejected.add(row.reject("User with email: " + email + " is already exists"));
+            } else if (!emails.add(email)) {
+                rejected.add(row.reject("User with email: " + email + " is repeated in the import"));
+            } else {
+                accepted.add(new Object[]{row.value().getName(), email});
+            }
+        }
+
+        importWriter.write("users", "users_seq", List.of("name", "email"), accepted);
+        if (!emails.isEmpty()) {
+            userRepository.findIdsByEmailIn(emails).forEach(userExistenceCache::register);
+        }
+        return rejected;
+    }
+}
@@ -1,17 +1,28 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoSpecified;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.CursorPage;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.Collection;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.List;
 
 @Slf4j
 @RestController
@@ -21,6 +32,7 @@ public class ItemController {
     private final String userHeader = "X-Sharer-User-Id";
 
     private final ItemService itemService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -46,9 +58,48 @@ public class ItemController {
     }
 
     @GetMapping
-    public Collection<ItemDtoSpecified> readForTheUser(@RequestHeader(userHeader) Long userId) {
+    public ResponseEntity<List<ItemDtoSpecified>> readForTheUser(@RequestHeader(userHeader) Long userId,
+                                                                 @RequestParam(required = false) String cursor,
+                                                                 @RequestParam(defaultValue = CursorPage.DEFAULT_SIZE)
+                                                                 Integer size) {
         log.trace("Getting items for user with id: {} is started", userId);
-        return itemService.findForTheUser(userId);
+        return itemService.findForTheUser(userId, cursor, size).toResponseEntity();
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamForTheUser(@RequestHeader(userHeader) Long userId,
+                                 HttpServletResponse response) throws IOException {
+        log.trace("Streaming items for user with id: {} is started", userId);
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        OutputStream outputStream = response.getOutputStream();
+
+        try {
+            itemService.streamForTheUser(userId, item -> {
+                try {
+                    outputStream.write(objectMapper.writeValueAsBytes(item));
+                    outputStream.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (RuntimeException e) {
+            if (!response.isCommitted()) {
+                response.reset();
+            }
+            throw e;
+        }
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public List<ItemAvailabilityDto> readAvailability(@PathVariable Long itemId,
+                                                      @RequestParam
+                                                      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                      LocalDateTime from,
+                                                      @RequestParam
+                                                      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                      LocalDateTime to) {
+        log.trace("Getting availability of item with id: {} from {} to {} is started", itemId, from, to);
+        return itemService.findAvailability(itemId, from, to);
     }
 
     @PatchMapping("/{itemId}")
@@ -66,8 +117,10 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public Collection<ItemDto> search(@RequestParam String text) {
+    public ResponseEntity<List<ItemDto>> search(@RequestParam String text,
+                                                @RequestParam(required = false) String cursor,
+                                                @RequestParam(defaultValue = CursorPage.DEFAULT_SIZE) Integer size) {
         log.trace("Search for items whose name or description contains text: {} is started", text);
-        return itemService.search(text);
+        return itemService.search(text, cursor, size).toResponseEntity();
     }
 }
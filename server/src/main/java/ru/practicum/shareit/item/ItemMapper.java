@@ -4,6 +4,7 @@ import org.springframework.stereotype.Component;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoSpecified;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.IndexedItem;
 
 @Component
 public class ItemMapper {
@@ -18,6 +19,17 @@ public class ItemMapper {
                 .build();
     }
 
+    public static ItemDto toItemDtoFromIndexedItem(IndexedItem item) {
+        return ItemDto.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.getAvailable())
+                .owner(item.getOwner())
+                .requestId(item.getRequestId())
+                .build();
+    }
+
     public static Item toItemFromItemDto(ItemDto itemDto) {
         return Item.builder()
                 .id(itemDto.getId())
@@ -46,4 +58,16 @@ public class ItemMapper {
                 .requestId(item.getRequest() == null ? null : item.getRequest().getId())
                 .build();
     }
+
+    public static ItemDtoSpecified copyOf(ItemDtoSpecified itemDtoSpecified) {
+        return ItemDtoSpecified.builder()
+                .id(itemDtoSpecified.getId())
+                .name(itemDtoSpecified.getName())
+                .description(itemDtoSpecified.getDescription())
+                .available(itemDtoSpecified.getAvailable())
+                .owner(itemDtoSpecified.getOwner())
+                .comments(itemDtoSpecified.getComments())
+                .requestId(itemDtoSpecified.getRequestId())
+                .build();
+    }
 }
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@ToString
+@AllArgsConstructor
+@EqualsAndHashCode
+public class ItemAvailabilityDto {
+
+    private final LocalDateTime start;
+
+    private final LocalDateTime end;
+}
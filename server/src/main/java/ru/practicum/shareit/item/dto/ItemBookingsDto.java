@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.*;
+import ru.practicum.shareit.booking.dto.BookingDto;
+
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+public class ItemBookingsDto {
+
+    private final BookingDto lastBooking;
+
+    private final BookingDto nextBooking;
+}
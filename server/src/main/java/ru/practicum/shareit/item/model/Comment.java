@@ -14,11 +14,14 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @EqualsAndHashCode
 @Entity
-@Table(name = "comments", schema = "public")
+@Table(name = "comments", schema = "public", indexes = {
+        @Index(name = "IX_COMMENTS_ITEM", columnList = "item_id")
+})
 public class Comment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "comments_seq")
+    @SequenceGenerator(name = "comments_seq", sequenceName = "comments_seq", allocationSize = 50)
     Long id;
 
     @Column
@@ -3,10 +3,12 @@ package ru.practicum.shareit.item.model;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.DynamicUpdate;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -16,11 +18,17 @@ import java.util.Set;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-@Table(name = "items", schema = "public")
+@DynamicUpdate
+@Table(name = "items", schema = "public", indexes = {
+        @Index(name = "IX_ITEMS_OWNER", columnList = "owner_id, id"),
+        @Index(name = "IX_ITEMS_REQUEST", columnList = "request_id"),
+        @Index(name = "IX_ITEMS_POINTERS_EXPIRE_AT", columnList = "pointers_expire_at")
+})
 public class Item {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_seq")
+    @SequenceGenerator(name = "items_seq", sequenceName = "items_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "name")
@@ -47,4 +55,15 @@ public class Item {
     @ManyToOne
     @JoinColumn(name = "request_id")
     private ItemRequest request;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "last_booking_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private Booking lastBooking;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "next_booking_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private Booking nextBooking;
+
+    @Column(name = "pointers_expire_at")
+    private LocalDateTime pointersExpireAt;
 }
@@ -1,31 +1,86 @@
 package ru.practicum.shareit.item.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.IndexedItem;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
+    String RANK = "CASE WHEN upper(i.name) = upper(:text) THEN 0 " +
+            "WHEN upper(i.name) LIKE upper(concat(:text, '%')) THEN 1 " +
+            "WHEN upper(i.name) LIKE upper(concat('%', :text, '%')) THEN 2 " +
+            "ELSE 3 END";
+
     @Query("select i from Item i " +
             "where i.available = true " +
-            "and (upper(i.name) like upper(concat('%', ?1, '%'))" +
-            "or upper(i.description) like upper(concat('%', ?1, '%')))")
-    List<Item> search(String text);
+            "and (upper(i.name) like upper(concat('%', :text, '%')) " +
+            "or upper(i.description) like upper(concat('%', :text, '%'))) " +
+            "and (" + RANK + " > :rank or (" + RANK + " = :rank and i.id > :id)) " +
+            "order by " + RANK + ", i.id")
+    List<Item> search(@Param("text") String text, @Param("rank") int rank, @Param("id") long id, Limit limit);
+
+    @Query(value = "SELECT i.* FROM items i " +
+            "WHERE i.is_available = true " +
+            "AND i.search_vector @@ to_tsquery('simple', :query) " +
+            "AND (" + RANK + " > :rank OR (" + RANK + " = :rank AND i.id > :id)) " +
+            "ORDER BY " + RANK + ", i.id",
+            nativeQuery = true)
+    List<Item> searchFullText(@Param("query") String query,
+                              @Param("text") String text,
+                              @Param("rank") int rank,
+                              @Param("id") long id,
+                              Limit limit);
+
+    @Query("SELECT new ru.practicum.shareit.item.search.IndexedItem(" +
+            "i.id, i.name, i.description, i.available, i.owner.id, r.id) " +
+            "FROM Item i " +
+            "LEFT JOIN i.request r " +
+            "WHERE i.available = true")
+    List<IndexedItem> findAllIndexed();
 
     @Query("SELECT i FROM Item i " +
-            "LEFT JOIN FETCH i.comments " +
-            "LEFT JOIN FETCH i.bookings b " +
+            "LEFT JOIN FETCH i.request " +
+            "LEFT JOIN FETCH i.lastBooking " +
+            "LEFT JOIN FETCH i.nextBooking " +
             "WHERE i.id = :id")
-    Optional<Item> findByIdInFull(@Param("id") Long id);
+    Optional<Item> findByIdWithBookings(@Param("id") Long id);
 
     @Query("SELECT i FROM Item i " +
-            "LEFT JOIN FETCH i.comments " +
-            "LEFT JOIN FETCH i.bookings b " +
-            "WHERE i.owner.id = :ownerId")
-    List<Item> findAllByOwnerIdInFull(@Param("ownerId") Long ownerId);
+            "LEFT JOIN FETCH i.request " +
+            "LEFT JOIN FETCH i.lastBooking " +
+            "LEFT JOIN FETCH i.nextBooking " +
+            "WHERE i.owner.id = :ownerId AND i.id > :id " +
+            "ORDER BY i.id")
+    List<Item> findAllByOwnerIdWithBookings(@Param("ownerId") Long ownerId, @Param("id") long id, Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT i FROM Item i " +
+            "LEFT JOIN FETCH i.request " +
+            "LEFT JOIN FETCH i.lastBooking " +
+            "LEFT JOIN FETCH i.nextBooking " +
+            "WHERE i.owner.id = :ownerId " +
+            "ORDER BY i.id")
+    Stream<Item> streamAllByOwnerIdWithBookings(@Param("ownerId") Long ownerId);
+
+    @Query("SELECT i.id FROM Item i WHERE i.pointersExpireAt <= :now")
+    List<Long> findIdsWithExpiredBookingPointers(@Param("now") LocalDateTime now, Limit limit);
+
+    @Query("SELECT i FROM Item i JOIN FETCH i.owner WHERE i.id IN :ids")
+    List<Item> findAllWithOwnerByIdIn(@Param("ids") Collection<Long> ids);
 
     List<Item> findItemByRequestId(Long requestId);
 }
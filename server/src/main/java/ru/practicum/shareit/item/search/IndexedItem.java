@@ -0,0 +1,23 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class IndexedItem {
+
+    private final Long id;
+
+    private final String name;
+
+    private final String description;
+
+    private final Boolean available;
+
+    private final Long owner;
+
+    private final Long requestId;
+}
@@ -0,0 +1,191 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemSearchIndex {
+    private static final int GRAM_LENGTH = 3;
+
+    private final ItemRepository itemRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, IndexedItem> documents = new HashMap<>();
+    private final Map<Long, Postings> postings = new HashMap<>();
+
+    @Value("${shareit.item.search.mode:substring}")
+    private ItemSearchMode searchMode;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (searchMode != ItemSearchMode.INDEX) {
+            return;
+        }
+
+        log.trace("Rebuilding of item search index has started");
+        List<IndexedItem> items = itemRepository.findAllIndexed();
+
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            postings.clear();
+            items.forEach(this::add);
+            log.info("Item search index is built: {} items, {} grams", documents.size(), postings.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void index(Item item) {
+        if (searchMode != ItemSearchMode.INDEX) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            delete(item.getId());
+            if (Boolean.TRUE.equals(item.getAvailable())) {
+                add(new IndexedItem(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                        item.getOwner().getId(), item.getRequest() == null ? null : item.getRequest().getId()));
+            }
+            log.debug("Item with id: {} is reindexed", item.getId());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        if (searchMode != ItemSearchMode.INDEX) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            delete(id);
+            log.debug("Item with id: {} is removed from index", id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<IndexedItem> search(String text, int afterRank, long afterId, int limit) {
+        String query = text.toLowerCase(Locale.ROOT);
+
+        lock.readLock().lock();
+        try {
+            return findCandidates(query).stream()
+                    .map(item -> new Match(ItemSearchRank.of(item.getName(), item.getDescription(), query), item))
+                    .filter(match -> match.rank() != ItemSearchRank.NONE)
+                    .filter(match -> match.rank() > afterRank
+                            || (match.rank() == afterRank && match.item().getId() > afterId))
+                    .sorted(Comparator.comparingInt(Match::rank).thenComparing(match -> match.item().getId()))
+                    .limit(limit)
+                    .map(Match::item)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Collection<IndexedItem> findCandidates(String query) {
+        if (query.length() < GRAM_LENGTH) {
+            return documents.values();
+        }
+
+        List<Postings> lists = new ArrayList<>();
+        for (long gram : grams(query)) {
+            Postings list = postings.get(gram);
+            if (list == null) {
+                return List.of();
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(Postings::size));
+
+        long[] ids = lists.getFirst().toArray();
+        for (int i = 1; i < lists.size() && ids.length > 0; i++) {
+            ids = Postings.intersect(ids, lists.get(i));
+        }
+
+        List<IndexedItem> candidates = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            candidates.add(documents.get(id));
+        }
+        return candidates;
+    }
+
+    private void add(IndexedItem item) {
+        documents.put(item.getId(), item);
+        for (long gram : grams(item)) {
+            postings.computeIfAbsent(gram, key -> new Postings()).add(item.getId());
+        }
+    }
+
+    private void delete(Long id) {
+        IndexedItem item = documents.remove(id);
+        if (item == null) {
+            return;
+        }
+
+        for (long gram : grams(item)) {
+            Postings list = postings.get(gram);
+            if (list != null) {
+                list.remove(id);
+                if (list.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static long[] grams(IndexedItem item) {
+        long[] nameGrams = grams(item.getName().toLowerCase(Locale.ROOT));
+        long[] descriptionGrams = grams(item.getDescription().toLowerCase(Locale.ROOT));
+
+        long[] all = Arrays.copyOf(nameGrams, nameGrams.length + descriptionGrams.length);
+        System.arraycopy(descriptionGrams, 0, all, nameGrams.length, descriptionGrams.length);
+        return distinct(all);
+    }
+
+    private static long[] grams(String text) {
+        if (text.length() < GRAM_LENGTH) {
+            return new long[0];
+        }
+
+        long[] grams = new long[text.length() - GRAM_LENGTH + 1];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        return distinct(grams);
+    }
+
+    private static long[] distinct(long[] values) {
+        if (values.length == 0) {
+            return values;
+        }
+
+        Arrays.sort(values);
+        int count = 1;
+        for (int i = 1; i < values.length; i++) {
+            if (values[i] != values[count - 1]) {
+                values[count++] = values[i];
+            }
+        }
+        return Arrays.copyOf(values, count);
+    }
+
+    private record Match(int rank, IndexedItem item) {
+    }
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.Locale;
+
+public final class ItemSearchRank {
+    public static final int NONE = -1;
+    public static final int DESCRIPTION = 3;
+
+    private ItemSearchRank() {
+    }
+
+    public static int of(String name, String description, String text) {
+        String query = text.toLowerCase(Locale.ROOT);
+        String lowerName = name.toLowerCase(Locale.ROOT);
+
+        if (lowerName.equals(query)) {
+            return 0;
+        }
+        if (lowerName.startsWith(query)) {
+            return 1;
+        }
+        if (lowerName.contains(query)) {
+            return 2;
+        }
+        if (description.toLowerCase(Locale.ROOT).contains(query)) {
+            return DESCRIPTION;
+        }
+        return NONE;
+    }
+}
@@ -0,0 +1,73 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.Arrays;
+
+class Postings {
+    private long[] ids = new long[4];
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    long get(int index) {
+        return ids[index];
+    }
+
+    void add(long id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position >= 0) {
+            return;
+        }
+        position = -position - 1;
+
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+        }
+        System.arraycopy(ids, position, ids, position + 1, size - position);
+        ids[position] = id;
+        size++;
+    }
+
+    void remove(long id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position < 0) {
+            return;
+        }
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        size--;
+
+        if (size > 8 && size < ids.length >> 2) {
+            ids = Arrays.copyOf(ids, ids.length >> 1);
+        }
+    }
+
+    long[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+
+    static long[] intersect(long[] candidates, Postings postings) {
+        long[] result = new long[Math.min(candidates.length, postings.size)];
+        int count = 0;
+        int from = 0;
+
+        for (long candidate : candidates) {
+            int position = Arrays.binarySearch(postings.ids, from, postings.size, candidate);
+            if (position >= 0) {
+                result[count++] = candidate;
+                from = position + 1;
+            } else {
+                from = -position - 1;
+            }
+            if (from == postings.size) {
+                break;
+            }
+        }
+
+        return Arrays.copyOf(result, count);
+    }
+}
@@ -0,0 +1,142 @@
+package ru.practicum.shareit.item.service;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static ru.practicum.shareit.booking.model.Status.REJECTED;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ItemBookingPointerService {
+    private static final int ROLL_FORWARD_BATCH_SIZE = 500;
+    private static final String UPDATE_POINTERS = "UPDATE items " +
+            "SET last_booking_id = ?, next_booking_id = ?, pointers_expire_at = ? WHERE id = ?";
+    private static final int[] UPDATE_POINTERS_TYPES = {Types.BIGINT, Types.BIGINT, Types.TIMESTAMP, Types.BIGINT};
+
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ItemDetailsLoader itemDetailsLoader;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    @Transactional
+    public void refresh(Long itemId) {
+        LocalDateTime now = LocalDateTime.now();
+
+        Booking lastBooking = bookingRepository.findFirstByItemIdAndStatusNotAndEndBeforeOrderByEndDesc(itemId,
+                REJECTED, now);
+        Booking nextBooking = bookingRepository.findTopBookingByItemIdAndStatusNotAndStartAfterOrderByStartAsc(itemId,
+                REJECTED, now);
+        Booking currentBooking = bookingRepository
+                .findFirstByItemIdAndStatusNotAndStartLessThanEqualAndEndAfterOrderByEndAsc(itemId, REJECTED, now, now);
+
+        Item item = itemRepository.findById(itemId).orElseThrow(() ->
+                new NotFoundException(String.format("Item with id: %d is not in repository", itemId)));
+        setPointers(item, lastBooking, nextBooking, currentBooking);
+    }
+
+    @Transactional
+    public void refreshAll(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+
+        Map<Long, Booking> lastBookings = byItem(bookingRepository.findLastBookingsOfItems(itemIds, REJECTED, now));
+        Map<Long, Booking> nextBookings = byItem(bookingRepository.findNextBookingsOfItems(itemIds, REJECTED, now));
+        Map<Long, Booking> currentBookings = byItem(bookingRepository.findCurrentBookingsOfItems(itemIds,
+                REJECTED, now));
+
+        List<Object[]> rows = itemIds.stream()
+                .map(itemId -> {
+                    Booking lastBooking = lastBookings.get(itemId);
+                    Booking nextBooking = nextBookings.get(itemId);
+                    LocalDateTime expireAt = expireAt(nextBooking, currentBookings.get(itemId));
+                    return new Object[]{
+                            lastBooking == null ? null : lastBooking.getId(),
+                            nextBooking == null ? null : nextBooking.getId(),
+                            expireAt == null ? null : Timestamp.valueOf(expireAt),
+                            itemId};
+                })
+                .toList();
+
+        // Hibernate doesn't batch the dynamic updates of items, so the pointers are written in one JDBC batch past
+        // the persistence context, which is flushed before and cleared after it like a bulk update would be.
+        entityManager.flush();
+        jdbcTemplate.batchUpdate(UPDATE_POINTERS, rows, UPDATE_POINTERS_TYPES);
+        entityManager.clear();
+        log.debug("Booking pointers of {} items are refreshed", rows.size());
+    }
+
+    // Also runs on startup, which catches up on pointers that expired while the server was down and fills in those
+    // of items that predate the pointers.
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${shareit.item.booking-pointers.roll-forward-cron}")
+    public void rollForward() {
+        log.trace("Roll-forward of item booking pointers has started");
+        int refreshed = 0;
+
+        List<Long> itemIds = itemRepository.findIdsWithExpiredBookingPointers(LocalDateTime.now(),
+                Limit.of(ROLL_FORWARD_BATCH_SIZE));
+        while (!itemIds.isEmpty()) {
+            List<Long> chunk = itemIds;
+            transactionTemplate.executeWithoutResult(status -> refreshAll(chunk));
+            chunk.forEach(itemDetailsLoader::evictBookings);
+            refreshed += itemIds.size();
+            itemIds = itemRepository.findIdsWithExpiredBookingPointers(LocalDateTime.now(),
+                    Limit.of(ROLL_FORWARD_BATCH_SIZE));
+        }
+
+        log.debug("Booking pointers of {} items were rolled forward", refreshed);
+    }
+
+    private void setPointers(Item item, Booking lastBooking, Booking nextBooking, Booking currentBooking) {
+        LocalDateTime expireAt = expireAt(nextBooking, currentBooking);
+        item.setLastBooking(lastBooking);
+        item.setNextBooking(nextBooking);
+        item.setPointersExpireAt(expireAt);
+        log.debug("Booking pointers of item with id: {} are refreshed and valid until {}", item.getId(), expireAt);
+    }
+
+    private static LocalDateTime expireAt(Booking nextBooking, Booking currentBooking) {
+        return Stream.of(
+                        nextBooking == null ? null : nextBooking.getStart(),
+                        currentBooking == null ? null : currentBooking.getEnd())
+                .filter(Objects::nonNull)
+                .min(LocalDateTime::compareTo)
+                .orElse(null);
+    }
+
+    private static Map<Long, Booking> byItem(List<Booking> bookings) {
+        return bookings.stream()
+                .collect(Collectors.toMap(booking -> booking.getItem().getId(), Function.identity(),
+                        (first, second) -> first.getId() < second.getId() ? first : second));
+    }
+}
@@ -0,0 +1,75 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.CommentMapper;
+import ru.practicum.shareit.item.dto.ItemBookingsDto;
+import ru.practicum.shareit.item.dto.ItemDtoSpecified;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+
+import static ru.practicum.shareit.item.ItemMapper.toItemDtoSpecifiedFromItem;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemDetailsLoader {
+    public static final String ITEMS_CACHE = "items";
+    public static final String ITEM_BOOKINGS_CACHE = "itemBookings";
+
+    private final ItemRepository itemRepository;
+    private final CommentRepository commentRepository;
+
+    @Cacheable(cacheNames = ITEMS_CACHE, key = "#id", sync = true)
+    public ItemDtoSpecified loadDetails(Long id) {
+        log.trace("Loading details of item with id: {}", id);
+
+        Item item = itemRepository.findById(id).orElseThrow(() ->
+                new NotFoundException(String.format("Item with id: %d is not in repository", id)));
+        ItemDtoSpecified itemDtoSpecified = toItemDtoSpecifiedFromItem(item);
+        itemDtoSpecified.setComments(commentRepository.findAllByItemIdIn(List.of(id)).stream()
+                .map(CommentMapper::toCommentDto)
+                .toList());
+
+        return itemDtoSpecified;
+    }
+
+    @Cacheable(cacheNames = ITEM_BOOKINGS_CACHE, key = "#id", sync = true)
+    public ItemBookingsDto loadBookings(Long id) {
+        log.trace("Loading bookings of item with id: {}", id);
+
+        Item item = itemRepository.findByIdWithBookings(id).orElseThrow(() ->
+                new NotFoundException(String.format("Item with id: %d is not in repository", id)));
+
+        return new ItemBookingsDto(
+                item.getLastBooking() == null ? null : BookingMapper.toBookingDto(item.getLastBooking()),
+                item.getNextBooking() == null ? null : BookingMapper.toBookingDto(item.getNextBooking()));
+    }
+
+    @CacheEvict(cacheNames = ITEMS_CACHE, key = "#id")
+    public void evictDetails(Long id) {
+        log.debug("Details of item with id: {} are evicted from cache", id);
+    }
+
+    @CacheEvict(cacheNames = ITEM_BOOKINGS_CACHE, key = "#id")
+    public void evictBookings(Long id) {
+        log.debug("Bookings of item with id: {} are evicted from cache", id);
+    }
+
+    @Caching(evict = {
+            @CacheEvict(cacheNames = ITEMS_CACHE, key = "#id"),
+            @CacheEvict(cacheNames = ITEM_BOOKINGS_CACHE, key = "#id")
+    })
+    public void evict(Long id) {
+        log.debug("Item with id: {} is evicted from cache", id);
+    }
+}
@@ -1,24 +1,42 @@
 package ru.practicum.shareit.item.service;
 
+import ru.practicum.shareit.budget.QueryBudget;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoSpecified;
+import ru.practicum.shareit.pagination.CursorPage;
 
-import java.util.Collection;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
 
 public interface ItemService {
 
+    @QueryBudget(queries = 2, writes = 1)
     ItemDto create(Long userId, ItemDto itemDto);
 
+    @QueryBudget(queries = 6, writes = 1)
     CommentDto createComment(Long userId, Long itemId, CommentDto commentDto);
 
+    @QueryBudget(queries = 3)
     ItemDtoSpecified findById(Long userId, Long id);
 
-    Collection<ItemDtoSpecified> findForTheUser(Long userId);
+    @QueryBudget(queries = 3)
+    CursorPage<ItemDtoSpecified> findForTheUser(Long userId, String cursor, int size);
 
+    @QueryBudget(queries = 3)
+    void streamForTheUser(Long userId, Consumer<ItemDtoSpecified> action);
+
+    @QueryBudget(queries = 2)
+    List<ItemAvailabilityDto> findAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
+
+    @QueryBudget(queries = 2, writes = 1)
     ItemDto update(Long userId, Long id, ItemDto itemDto);
 
+    @QueryBudget(queries = 1, writes = 1)
     void deleteById(Long id);
 
-    Collection<ItemDto> search(String text);
+    @QueryBudget(queries = 2)
+    CursorPage<ItemDto> search(String text, String cursor, int size);
 }
@@ -1,16 +1,23 @@
 package ru.practicum.shareit.item.service;
 
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.BookingMapper;
-import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityCalendar;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exception.AccessDeniedException;
+import ru.practicum.shareit.exception.InvalidPeriodException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.UserNotValidToCommentException;
 import ru.practicum.shareit.item.CommentMapper;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemBookingsDto;
 import ru.practicum.shareit.item.dto.ItemDtoSpecified;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
@@ -18,36 +25,55 @@ import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.ItemSearchMode;
+import ru.practicum.shareit.item.search.ItemSearchRank;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
 
-import static ru.practicum.shareit.booking.model.Status.REJECTED;
 import static ru.practicum.shareit.item.CommentMapper.toComment;
 import static ru.practicum.shareit.item.CommentMapper.toCommentDto;
 import static ru.practicum.shareit.item.ItemMapper.*;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
+    private static final int STREAM_CHUNK_SIZE = 500;
+    private static final Duration MAX_AVAILABILITY_PERIOD = Duration.ofDays(92);
 
     private final CommentRepository commentRepository;
     private final ItemRepository itemRepository;
     private final ItemRequestRepository itemRequestRepository;
     private final UserRepository userRepository;
+    private final UserExistenceCache userExistenceCache;
     private final BookingService bookingService;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemDetailsLoader itemDetailsLoader;
+    private final ItemAvailabilityCalendar itemAvailabilityCalendar;
+    private final EntityManager entityManager;
+
+    @Value("${shareit.item.search.mode:substring}")
+    private ItemSearchMode searchMode;
 
     @Override
     public ItemDto create(Long userId, ItemDto itemDto) {
 
         log.trace("Adding item at service level has started");
-        User user = validateUserIsInRepository(userId);
+        validateUserIsInRepository(userId);
+        User user = userRepository.getReferenceById(userId);
         log.debug("Item owner exists. Start of adding owner to item");
         Item item = toItemFromItemDto(itemDto);
         item.setOwner(user);
@@ -60,7 +86,10 @@ public class ItemServiceImpl implements ItemService {
             item.setRequest(itemRequest);
         }
 
-        return toItemDtoFromItem(itemRepository.save(item));
+        Item savedItem = itemRepository.save(item);
+        itemSearchIndex.index(savedItem);
+
+        return toItemDtoFromItem(savedItem);
     }
 
     @Override
@@ -69,7 +98,8 @@ public class ItemServiceImpl implements ItemService {
         log.trace("Adding comment by user with id: {} for item with id: {} is started (at service layer)",
                 userId, itemId);
 
-        User author = validateUserIsInRepository(userId);
+        User author = userRepository.findById(userId).orElseThrow(() ->
+                new NotFoundException(String.format("User with id: %d is not in repository", userId)));
         log.debug("User-commentator exists");
 
         Item item = toItemFromItemRequest(findById(userId, itemId));
@@ -77,7 +107,10 @@ public class ItemServiceImpl implements ItemService {
         validateTheAbilityToComment(userId);
         log.debug("User has rights to comment this item");
 
-        return toCommentDto(commentRepository.save(toComment(commentDto, item, author)));
+        CommentDto savedComment = toCommentDto(commentRepository.save(toComment(commentDto, item, author)));
+        itemDetailsLoader.evictDetails(itemId);
+
+        return savedComment;
     }
 
     @Override
@@ -85,17 +118,13 @@ public class ItemServiceImpl implements ItemService {
 
         log.trace("Searching for item with id: {} has started (at service layer)", id);
 
-        Item item = itemRepository.findByIdInFull(id).orElseThrow(() ->
-                new NotFoundException(String.format("Item with id: %d is not in repository", id)));
-        log.debug("Item with id: {} is in repository. Start of adding bookings and comments...", id);
-
-        ItemDtoSpecified itemDtoSpecified = toItemDtoSpecifiedFromItem(item);
-
-        setComments(itemDtoSpecified, item.getComments());
-        log.debug("Comments wer set for item with id: {}", id);
+        ItemDtoSpecified itemDtoSpecified = copyOf(itemDetailsLoader.loadDetails(id));
+        log.debug("Item with id: {} and its comments are loaded", id);
 
         if (Objects.equals(itemDtoSpecified.getOwner(), userId)) {
-            setBookings(itemDtoSpecified, item.getBookings());
+            ItemBookingsDto bookings = itemDetailsLoader.loadBookings(id);
+            itemDtoSpecified.setLastBooking(bookings.getLastBooking());
+            itemDtoSpecified.setNextBooking(bookings.getNextBooking());
             log.debug("Bookings were set for item with id: {} (request from the owner of the thing with id: {})",
                     id, userId);
         }
@@ -104,19 +133,64 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
-    public Collection<ItemDtoSpecified> findForTheUser(Long userId) {
+    public CursorPage<ItemDtoSpecified> findForTheUser(Long userId, String cursor, int size) {
         validateUserIsInRepository(userId);
 
-        return itemRepository.findAllByOwnerIdInFull(userId).stream()
-                .map(item -> {
-                    ItemDtoSpecified itemDtoSpecified = toItemDtoSpecifiedFromItem(item);
-                    if (item.getOwner().getId().equals(userId)) {
-                        setBookings(itemDtoSpecified, item.getBookings());
-                    }
-                    setComments(itemDtoSpecified, item.getComments());
-                    return itemDtoSpecified;
-                })
-                .toList();
+        int limit = CursorPage.limit(size);
+        long afterId = cursor == null ? 0 : Cursor.decode(cursor, 1)[0];
+        log.debug("Page of items of user with id: {} starts after item id: {}", userId, afterId);
+
+        CursorPage<Item> page = CursorPage.of(
+                itemRepository.findAllByOwnerIdWithBookings(userId, afterId, Limit.of(limit + 1)),
+                limit, item -> Cursor.encode(item.getId()));
+        log.debug("Found {} items of user with id: {}. Start of adding bookings and comments...",
+                page.getItems().size(), userId);
+
+        return new CursorPage<>(toItemDtosSpecified(page.getItems()), page.getNextCursor());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamForTheUser(Long userId, Consumer<ItemDtoSpecified> action) {
+        validateUserIsInRepository(userId);
+        log.trace("Streaming of items of user with id: {} has started", userId);
+
+        try (Stream<Item> items = itemRepository.streamAllByOwnerIdWithBookings(userId)) {
+            Iterator<Item> iterator = items.iterator();
+            List<Item> chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+
+                if (chunk.size() == STREAM_CHUNK_SIZE || !iterator.hasNext()) {
+                    toItemDtosSpecified(chunk).forEach(action);
+                    log.debug("{} items of user with id: {} were streamed", chunk.size(), userId);
+                    chunk.clear();
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
+    @Override
+    public List<ItemAvailabilityDto> findAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+
+        log.trace("Search for availability of item with id: {} has started (at service layer)", itemId);
+
+        if (!from.isBefore(to)) {
+            throw new InvalidPeriodException("Start of the period must be before its end");
+        }
+        if (Duration.between(from, to).compareTo(MAX_AVAILABILITY_PERIOD) > 0) {
+            throw new InvalidPeriodException(String.format("Period can't be longer than %d days",
+                    MAX_AVAILABILITY_PERIOD.toDays()));
+        }
+
+        if (!itemRepository.existsById(itemId)) {
+            throw new NotFoundException(String.format("Item with id = %d is not in repository", itemId));
+        }
+        log.debug("Item with id: {} is in repository", itemId);
+
+        return itemAvailabilityCalendar.findFreeWindows(itemId, from, to);
     }
 
     @Override
@@ -140,7 +214,11 @@ public class ItemServiceImpl implements ItemService {
 
         updateItemFields(oldItemForUpdate, itemDto);
 
-        return toItemDtoFromItem(itemRepository.save(oldItemForUpdate));
+        Item updatedItem = itemRepository.save(oldItemForUpdate);
+        itemSearchIndex.index(updatedItem);
+        itemDetailsLoader.evictDetails(id);
+
+        return toItemDtoFromItem(updatedItem);
     }
 
     @Override
@@ -151,34 +229,72 @@ public class ItemServiceImpl implements ItemService {
                 new NotFoundException(String.format("Item with id = %d is not in repository", id)));
         log.debug("Item with id: {} is in repository and can be deleted", id);
         itemRepository.deleteById(id);
+        itemSearchIndex.remove(id);
+        itemDetailsLoader.evict(id);
     }
 
     @Override
-    public Collection<ItemDto> search(String text) {
+    public CursorPage<ItemDto> search(String text, String cursor, int size) {
 
         log.trace("Start of searching for items whose name or description contains text: {}", text);
 
         if (text.isBlank()) {
             log.debug("Text parameter is blank. Search is finished");
+            return CursorPage.empty();
+        }
+
+        int limit = CursorPage.limit(size);
+        long[] position = cursor == null ? new long[]{ItemSearchRank.NONE, 0} : Cursor.decode(cursor, 2);
+        int rank = (int) position[0];
+        long id = position[1];
+        log.debug("Search page starts after rank: {} and item id: {}", rank, id);
+
+        List<ItemDto> items = switch (searchMode) {
+            case INDEX -> itemSearchIndex.search(text, rank, id, limit + 1).stream()
+                    .map(ItemMapper::toItemDtoFromIndexedItem)
+                    .toList();
+            case FULLTEXT -> searchFullText(text, rank, id, limit + 1).stream()
+                    .map(ItemMapper::toItemDtoFromItem)
+                    .toList();
+            case SUBSTRING -> itemRepository.search(text, rank, id, Limit.of(limit + 1)).stream()
+                    .map(ItemMapper::toItemDtoFromItem)
+                    .toList();
+        };
+
+        return CursorPage.of(items, limit, item -> Cursor.encode(cursorRank(item, text), item.getId()));
+    }
+
+    // Full-text search also matches words in another order, which the query ranks together with description matches.
+    private int cursorRank(ItemDto item, String text) {
+        int rank = ItemSearchRank.of(item.getName(), item.getDescription(), text);
+        return rank == ItemSearchRank.NONE && searchMode == ItemSearchMode.FULLTEXT ? ItemSearchRank.DESCRIPTION : rank;
+    }
+
+    private List<Item> searchFullText(String text, int rank, long id, int limit) {
+        String query = Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(token -> !token.isEmpty())
+                .map(token -> token + ":*")
+                .collect(Collectors.joining(" & "));
+        log.debug("Full-text query built: {}", query);
+
+        if (query.isEmpty()) {
             return List.of();
         }
 
-        return itemRepository.search(text).stream()
-                .map(ItemMapper::toItemDtoFromItem)
-                .collect(Collectors.toList());
+        return itemRepository.searchFullText(query, text, rank, id, Limit.of(limit));
     }
 
-    private User validateUserIsInRepository(Long userId) {
-        return userRepository.findById(userId).orElseThrow(() ->
-                new NotFoundException(String.format("User with id: %d is not in repository", userId)));
+    private void validateUserIsInRepository(Long userId) {
+        if (!userExistenceCache.exists(userId)) {
+            throw new NotFoundException(String.format("User with id: %d is not in repository", userId));
+        }
     }
 
     private void validateTheAbilityToComment(Long userId) {
-        bookingService.readBookingsForUser(userId, "ALL").stream()
-                .filter(bookingResponse -> Objects.equals(bookingResponse.getBooker().getId(), userId) &&
-                        bookingResponse.getEnd().isBefore(LocalDateTime.now()))
-                .findFirst().orElseThrow(() -> new UserNotValidToCommentException(
-                        "The user can comment only if he/she has rented the item and the rental period has ended"));
+        if (bookingService.readBookingsForUser(userId, "PAST", null, 1).getItems().isEmpty()) {
+            throw new UserNotValidToCommentException(
+                    "The user can comment only if he/she has rented the item and the rental period has ended");
+        }
     }
 
     private void updateItemFields(Item target, ItemDto source) {
@@ -202,7 +318,22 @@ public class ItemServiceImpl implements ItemService {
         log.debug("Item fields update is finished");
     }
 
-    private void setComments(ItemDtoSpecified itemDtoSpecified, Set<Comment> comments) {
+    private List<ItemDtoSpecified> toItemDtosSpecified(List<Item> items) {
+        List<Long> itemIds = items.stream().map(Item::getId).toList();
+        Map<Long, List<Comment>> comments = commentRepository.findAllByItemIdIn(itemIds).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
+
+        return items.stream()
+                .map(item -> {
+                    ItemDtoSpecified itemDtoSpecified = toItemDtoSpecifiedFromItem(item);
+                    setBookings(itemDtoSpecified, item);
+                    setComments(itemDtoSpecified, comments.getOrDefault(item.getId(), List.of()));
+                    return itemDtoSpecified;
+                })
+                .toList();
+    }
+
+    private void setComments(ItemDtoSpecified itemDtoSpecified, Collection<Comment> comments) {
         /*itemDtoSpecified.setComments(comments.stream()
                 .map(CommentMapper::toCommentDto)
                 .toList());*/
@@ -217,27 +348,12 @@ public class ItemServiceImpl implements ItemService {
 
     }
 
-    private void setBookings(ItemDtoSpecified itemDtoSpecified, Set<Booking> bookings) {
-        if (bookings != null) {
-            LocalDateTime now = LocalDateTime.now();
-
-            itemDtoSpecified.setLastBooking(
-                    bookings.stream()
-                            .filter(booking -> booking.getStatus() != REJECTED)
-                            .filter(booking -> booking.getEnd().isBefore(now))
-                            .max(Comparator.comparing(Booking::getEnd))
-                            .map(BookingMapper::toBookingDto)
-                            .orElse(null)
-            );
-
-            itemDtoSpecified.setNextBooking(
-                    bookings.stream()
-                            .filter(booking -> booking.getStatus() != REJECTED)
-                            .filter(booking -> booking.getStart().isAfter(now))
-                            .min(Comparator.comparing(Booking::getStart))
-                            .map(BookingMapper::toBookingDto)
-                            .orElse(null)
-            );
-        }
+    private void setBookings(ItemDtoSpecified itemDtoSpecified, Item item) {
+        itemDtoSpecified.setLastBooking(item.getLastBooking() == null
+                ? null
+                : BookingMapper.toBookingDto(item.getLastBooking()));
+        itemDtoSpecified.setNextBooking(item.getNextBooking() == null
+                ? null
+                : BookingMapper.toBookingDto(item.getNextBooking()));
     }
 }
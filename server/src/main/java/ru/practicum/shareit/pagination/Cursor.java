@@ -0,0 +1,38 @@
+package ru.practicum.shareit.pagination;
+
+import ru.practicum.shareit.exception.PaginationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.stream.Collectors;
+
+public final class Cursor {
+    private static final String SEPARATOR = ":";
+
+    private Cursor() {
+    }
+
+    public static String encode(long... parts) {
+        String raw = Arrays.stream(parts)
+                .mapToObj(Long::toString)
+                .collect(Collectors.joining(SEPARATOR));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static long[] decode(String cursor, int length) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            long[] parts = Arrays.stream(raw.split(SEPARATOR))
+                    .mapToLong(Long::parseLong)
+                    .toArray();
+
+            if (parts.length != length) {
+                throw new IllegalArgumentException("Unexpected number of cursor parts");
+            }
+            return parts;
+        } catch (IllegalArgumentException e) {
+            throw new PaginationException(String.format("Cursor: %s is not valid", cursor));
+        }
+    }
+}
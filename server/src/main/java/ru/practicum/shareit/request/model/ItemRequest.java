@@ -9,7 +9,10 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "requests")
+@Table(name = "requests", indexes = {
+        @Index(name = "IX_REQUESTS_REQUESTER_CREATED", columnList = "requester_id, created DESC"),
+        @Index(name = "IX_REQUESTS_CREATED", columnList = "created DESC")
+})
 @Builder
 @Getter
 @Setter
@@ -20,7 +23,8 @@ import java.util.List;
 public class ItemRequest {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "requests_seq")
+    @SequenceGenerator(name = "requests_seq", sequenceName = "requests_seq", allocationSize = 50)
     long id;
 
     @Column
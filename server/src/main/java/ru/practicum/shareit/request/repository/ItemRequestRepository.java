@@ -5,15 +5,23 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
-    List<ItemRequest> findByRequester_IdNotOrderByCreatedDesc(Long requesterId);
+    @Query("SELECT DISTINCT r FROM ItemRequest r " +
+            "LEFT JOIN FETCH r.items " +
+            "WHERE r.requester.id <> :userId " +
+            "ORDER BY r.created DESC")
+    List<ItemRequest> findByRequesterIdNotWithItems(@Param("userId") Long userId);
 
     @Query("SELECT DISTINCT r FROM ItemRequest r " +
             "LEFT JOIN FETCH r.items " +
             "WHERE r.requester.id = :userId " +
             "ORDER BY r.created DESC")
     List<ItemRequest> findByRequesterIdWithItems(@Param("userId") Long userId);
+
+    @Query("SELECT r.id FROM ItemRequest r WHERE r.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 }
@@ -1,16 +1,21 @@
 package ru.practicum.shareit.request.service;
 
+import ru.practicum.shareit.budget.QueryBudget;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.util.List;
 
 public interface ItemRequestService {
 
+    @QueryBudget(queries = 2, writes = 1)
     ItemRequestDto create(Long userId, ItemRequestDto itemRequestDto);
 
+    @QueryBudget(queries = 2)
     List<ItemRequestDto> readAllByUser(Long userId);
 
+    @QueryBudget(queries = 2)
     List<ItemRequestDto> readAllByOtherUsers(Long userId);
 
+    @QueryBudget(queries = 2)
     ItemRequestDto readTheItemRequest(Long requestId);
 }
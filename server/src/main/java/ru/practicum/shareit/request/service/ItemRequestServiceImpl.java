@@ -12,7 +12,8 @@ import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -20,20 +21,21 @@ import java.util.Optional;
 
 import static ru.practicum.shareit.request.ItemRequestMapper.toItemRequestIfCreate;
 import static ru.practicum.shareit.request.ItemRequestMapper.toItemRequestDto;
-import static ru.practicum.shareit.user.UserMapper.toUser;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ItemRequestServiceImpl implements ItemRequestService {
 
-    private final UserService userService;
+    private final UserExistenceCache userExistenceCache;
+    private final UserRepository userRepository;
     private final ItemRequestRepository itemRequestRepository;
     private final ItemRepository itemRepository;
 
     @Override
     public ItemRequestDto create(Long userId, ItemRequestDto itemRequestDto) {
-        User requester = toUser(userService.findById(userId));
+        validateUserExists(userId);
+        User requester = userRepository.getReferenceById(userId);
         ItemRequest itemRequest = toItemRequestIfCreate(itemRequestDto);
         itemRequest.setRequester(requester);
         itemRequest.setCreated(LocalDateTime.now());
@@ -42,7 +44,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     public List<ItemRequestDto> readAllByUser(Long userId) {
-        userService.findById(userId);
+        validateUserExists(userId);
 
         return itemRequestRepository.findByRequesterIdWithItems(userId)
                 .stream()
@@ -52,9 +54,9 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     public List<ItemRequestDto> readAllByOtherUsers(Long userId) {
-        userService.findById(userId);
+        validateUserExists(userId);
 
-        List<ItemRequest> itemRequests = itemRequestRepository.findByRequester_IdNotOrderByCreatedDesc(userId);
+        List<ItemRequest> itemRequests = itemRequestRepository.findByRequesterIdNotWithItems(userId);
 
         if (!itemRequests.isEmpty()) {
             return itemRequests.stream()
@@ -84,4 +86,10 @@ public class ItemRequestServiceImpl implements ItemRequestService {
                 })
                 .orElseThrow(() -> new NotFoundException("There's no item-request"));
     }
+
+    private void validateUserExists(Long userId) {
+        if (!userExistenceCache.exists(userId)) {
+            throw new NotFoundException(String.format("User with id = %d is not in repository", userId));
+        }
+    }
 }
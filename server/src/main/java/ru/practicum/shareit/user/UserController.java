@@ -1,15 +1,23 @@
 package ru.practicum.shareit.user;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.Collection;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
 
 @Slf4j
 @RestController
@@ -18,6 +26,7 @@ import java.util.Collection;
 public class UserController {
 
     private final UserService userService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -33,9 +42,33 @@ public class UserController {
     }
 
     @GetMapping
-    public Collection<UserDto> readAll() {
-        log.trace("Getting collection of all users is started");
-        return userService.findAll();
+    public ResponseEntity<List<UserDto>> readAll(@RequestParam(required = false) String cursor,
+                                                 @RequestParam(defaultValue = CursorPage.DEFAULT_SIZE) Integer size) {
+        log.trace("Getting page of users is started");
+        return userService.findAll(cursor, size).toResponseEntity();
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamAll(HttpServletResponse response) throws IOException {
+        log.trace("Streaming of all users is started");
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        OutputStream outputStream = response.getOutputStream();
+
+        try {
+            userService.streamAll(user -> {
+                try {
+                    outputStream.write(objectMapper.writeValueAsBytes(user));
+                    outputStream.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (RuntimeException e) {
+            if (!response.isCommitted()) {
+                response.reset();
+            }
+            throw e;
+        }
     }
 
     @PatchMapping("/{id}")
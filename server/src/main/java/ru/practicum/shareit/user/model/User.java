@@ -2,6 +2,7 @@ package ru.practicum.shareit.user.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import ru.practicum.shareit.user.service.UserExistenceListener;
 
 @Builder
 @Getter
@@ -12,10 +13,12 @@ import lombok.*;
 @EqualsAndHashCode
 @Entity
 @Table(name = "users", schema = "public")
+@EntityListeners(UserExistenceListener.class)
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "name")
@@ -0,0 +1,84 @@
+package ru.practicum.shareit.user.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+
+import static ru.practicum.shareit.transaction.TransactionCallbacks.afterCommit;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserExistenceCache {
+    private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${shareit.user.exists-cache.maximum-size:100000}")
+    private long maximumSize;
+
+    @Value("${shareit.user.exists-cache.expire-after-write:10m}")
+    private Duration expireAfterWrite;
+
+    // Kept short, because a user that another node saves is only seen here once its missing entry runs out.
+    @Value("${shareit.user.exists-cache.missing-expire-after-write:5s}")
+    private Duration missingExpireAfterWrite;
+
+    private Cache<Long, Boolean> existing;
+    private Cache<Long, Boolean> missing;
+
+    @PostConstruct
+    void init() {
+        existing = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        missing = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(missingExpireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, existing, "userExistence");
+        CaffeineCacheMetrics.monitor(meterRegistry, missing, "userAbsence");
+    }
+
+    public boolean exists(Long userId) {
+        if (userId == null) {
+            return false;
+        }
+        if (existing.getIfPresent(userId) != null) {
+            return true;
+        }
+        if (missing.getIfPresent(userId) != null) {
+            return false;
+        }
+
+        boolean exists = userRepository.existsById(userId);
+        if (exists) {
+            afterCommit(() -> existing.put(userId, Boolean.TRUE));
+        } else {
+            log.debug("User with id: {} is not in repository and is cached as missing", userId);
+            missing.put(userId, Boolean.TRUE);
+        }
+        return exists;
+    }
+
+    public void register(Long userId) {
+        missing.invalidate(userId);
+        afterCommit(() -> existing.put(userId, Boolean.TRUE));
+    }
+
+    public void evict(Long userId) {
+        existing.invalidate(userId);
+        afterCommit(() -> existing.invalidate(userId));
+    }
+}
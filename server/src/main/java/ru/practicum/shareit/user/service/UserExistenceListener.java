@@ -0,0 +1,24 @@
+package ru.practicum.shareit.user.service;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.user.model.User;
+
+@Component
+@RequiredArgsConstructor
+public class UserExistenceListener {
+    private final ObjectProvider<UserExistenceCache> userExistenceCache;
+
+    @PostPersist
+    public void created(User user) {
+        userExistenceCache.getObject().register(user.getId());
+    }
+
+    @PostRemove
+    public void deleted(User user) {
+        userExistenceCache.getObject().evict(user.getId());
+    }
+}
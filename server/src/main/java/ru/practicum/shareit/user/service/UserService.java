@@ -1,18 +1,28 @@
 package ru.practicum.shareit.user.service;
 
+import ru.practicum.shareit.budget.QueryBudget;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.user.dto.UserDto;
 
-import java.util.Collection;
+import java.util.function.Consumer;
 
 public interface UserService {
 
+    @QueryBudget(queries = 2, writes = 1)
     UserDto create(UserDto userDto);
 
+    @QueryBudget(queries = 1)
     UserDto findById(Long id);
 
-    Collection<UserDto> findAll();
+    @QueryBudget(queries = 1)
+    CursorPage<UserDto> findAll(String cursor, int size);
 
+    @QueryBudget(queries = 1)
+    void streamAll(Consumer<UserDto> action);
+
+    @QueryBudget(queries = 1, writes = 1)
     UserDto update(Long id, UserDto userDto);
 
+    @QueryBudget(queries = 1, writes = 1)
     void deleteById(Long id);
 }
@@ -1,16 +1,23 @@
 package ru.practicum.shareit.user.service;
 
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.UserEmailNotUniqueException;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.UserMapper;
+import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
-import java.util.Collection;
-import java.util.stream.Collectors;
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import static ru.practicum.shareit.user.UserMapper.*;
 
@@ -18,8 +25,11 @@ import static ru.practicum.shareit.user.UserMapper.*;
 @Service
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
+    private static final int STREAM_CHUNK_SIZE = 500;
 
     private final UserRepository userRepository;
+    private final UserExistenceCache userExistenceCache;
+    private final EntityManager entityManager;
 
     @Override
     public UserDto create(UserDto userDto) {
@@ -31,7 +41,10 @@ public class UserServiceImpl implements UserService {
 
         log.debug("The user’s email is valid: it is not registered in the database");
 
-        return toUserDto(userRepository.save(toUser(userDto)));
+        UserDto savedUser = toUserDto(userRepository.save(toUser(userDto)));
+        userExistenceCache.register(savedUser.getId());
+
+        return savedUser;
     }
 
     @Override
@@ -42,11 +55,39 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public Collection<UserDto> findAll() {
-        log.trace("Getting collection of users has started (at service layer)");
-        return userRepository.findAll().stream()
+    public CursorPage<UserDto> findAll(String cursor, int size) {
+        log.trace("Getting page of users has started (at service layer)");
+
+        int limit = CursorPage.limit(size);
+        long afterId = cursor == null ? 0 : Cursor.decode(cursor, 1)[0];
+        log.debug("Page of users starts after user id: {}", afterId);
+
+        CursorPage<User> page = CursorPage.of(userRepository.findAllAfterId(afterId, Limit.of(limit + 1)),
+                limit, user -> Cursor.encode(user.getId()));
+        return new CursorPage<>(page.getItems().stream()
                 .map(UserMapper::toUserDto)
-                .collect(Collectors.toList());
+                .toList(), page.getNextCursor());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<UserDto> action) {
+        log.trace("Streaming of users has started (at service layer)");
+
+        try (Stream<User> users = userRepository.streamAll()) {
+            Iterator<User> iterator = users.iterator();
+            int streamed = 0;
+
+            while (iterator.hasNext()) {
+                action.accept(toUserDto(iterator.next()));
+
+                if (++streamed % STREAM_CHUNK_SIZE == 0) {
+                    entityManager.clear();
+                    log.debug("{} users were streamed", streamed);
+                }
+            }
+            log.debug("Streaming of {} users is finished", streamed);
+        }
     }
 
     @Override
@@ -74,10 +115,13 @@ public class UserServiceImpl implements UserService {
     @Override
     public void deleteById(Long id) {
         log.trace("User with id: {} deletion started (at service layer)", id);
-        findById(id);
+        if (!userExistenceCache.exists(id)) {
+            throw new NotFoundException(String.format("User with id = %d is not in repository", id));
+        }
         log.debug("User with id: {} is in repository and can be delete", id);
 
         userRepository.deleteById(id);
+        userExistenceCache.evict(id);
     }
 
 }
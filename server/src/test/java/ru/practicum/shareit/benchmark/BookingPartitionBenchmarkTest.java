@@ -0,0 +1,179 @@
+package ru.practicum.shareit.benchmark;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import ru.practicum.shareit.booking.model.BookingPeriodMode;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.partition.BookingPartitionManager;
+import ru.practicum.shareit.booking.repository.BookingQuery;
+import ru.practicum.shareit.postgres.PostgresTest;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@Slf4j
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@PostgresTest
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {"shareit.item.search.mode=fulltext", "shareit.booking.period-mode=range"})
+public class BookingPartitionBenchmarkTest {
+    private static final long BOOKINGS = Long.getLong("benchmark.partition.bookings", 50_000_000L);
+    private static final int USERS = Integer.getInteger("benchmark.partition.users", 100_000);
+    private static final int ITEMS = Integer.getInteger("benchmark.partition.items", 50_000);
+    private static final int HISTORY_MONTHS = 60;
+    private static final int FUTURE_MONTHS = 6;
+    private static final int CHUNK_ITEMS = 1_000;
+    private static final int SAMPLE_USERS = 200;
+    private static final int ROUNDS = 3;
+    private static final String UNPARTITIONED = "bookings_unpartitioned";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private BookingPartitionManager bookingPartitionManager;
+
+    private List<Long> userIds;
+
+    @BeforeAll
+    void seed() {
+        cleanUp();
+        YearMonth now = YearMonth.now();
+        bookingPartitionManager.createPartitions(now.minusMonths(HISTORY_MONTHS + 1), now.plusMonths(FUTURE_MONTHS));
+
+        jdbcTemplate.execute("SELECT setseed(0.19)");
+        jdbcTemplate.update("INSERT INTO users (name, email) " +
+                "SELECT 'benchmark-partition', 'benchmark-partition-' || g || '@example.com' " +
+                "FROM generate_series(1, ?) g", USERS);
+        userIds = jdbcTemplate.queryForList("SELECT id FROM users WHERE name = 'benchmark-partition' ORDER BY id",
+                Long.class);
+        jdbcTemplate.update("INSERT INTO items (name, description, is_available, owner_id) " +
+                "SELECT 'benchmark-partition', 'Item of the booking partition benchmark', true, u.id " +
+                "FROM generate_series(1, ?) g " +
+                "JOIN (SELECT id, row_number() OVER (ORDER BY id) - 1 AS n FROM users " +
+                "WHERE name = 'benchmark-partition') u ON u.n = g % ?", ITEMS, USERS);
+        List<Long> itemIds = jdbcTemplate.queryForList("SELECT id FROM items WHERE name = 'benchmark-partition' " +
+                "ORDER BY id", Long.class);
+
+        long perItem = Math.max(1, BOOKINGS / itemIds.size());
+        long slotMinutes = (long) (HISTORY_MONTHS + FUTURE_MONTHS) * 30 * 24 * 60 / perItem;
+        long started = System.nanoTime();
+        for (int chunk = 0; chunk < itemIds.size(); chunk += CHUNK_ITEMS) {
+            List<Long> chunkIds = itemIds.subList(chunk, Math.min(chunk + CHUNK_ITEMS, itemIds.size()));
+            jdbcTemplate.update("WITH bookers AS (SELECT array_agg(id) AS ids FROM users " +
+                            "WHERE name = 'benchmark-partition'), " +
+                            "slots AS (SELECT i.id AS item_id, " +
+                            "now() - interval '1 month' * ? + interval '1 minute' * (? * n) AS slot_start, " +
+                            "interval '1 minute' * (1 + floor(random() * (? - 1))) AS duration, " +
+                            "b.ids[1 + floor(random() * cardinality(b.ids))::int] AS booker_id " +
+                            "FROM items i CROSS JOIN generate_series(0, ? - 1) n CROSS JOIN bookers b " +
+                            "WHERE i.id BETWEEN ? AND ? AND i.name = 'benchmark-partition') " +
+                            "INSERT INTO bookings (start_date, end_date, item_id, booker_id, status) " +
+                            "SELECT slot_start, slot_start + duration, item_id, booker_id, " +
+                            "CASE WHEN slot_start > now() AND random() < 0.3 THEN 'WAITING' " +
+                            "WHEN random() < 0.9 THEN 'APPROVED' ELSE 'REJECTED' END " +
+                            "FROM slots",
+                    HISTORY_MONTHS, slotMinutes, slotMinutes, perItem, chunkIds.getFirst(), chunkIds.getLast());
+        }
+        log.info("Seeded {} bookings in {} s", perItem * itemIds.size(), (System.nanoTime() - started) / 1_000_000_000);
+
+        started = System.nanoTime();
+        jdbcTemplate.execute("CREATE TABLE " + UNPARTITIONED + " (LIKE bookings INCLUDING DEFAULTS " +
+                "INCLUDING GENERATED INCLUDING INDEXES)");
+        jdbcTemplate.execute("INSERT INTO " + UNPARTITIONED + " (id, start_date, end_date, item_id, booker_id, " +
+                "status, version) SELECT id, start_date, end_date, item_id, booker_id, status, version FROM bookings");
+        jdbcTemplate.execute("ANALYZE bookings");
+        jdbcTemplate.execute("ANALYZE " + UNPARTITIONED);
+        log.info("Copied bookings to the unpartitioned table in {} s", (System.nanoTime() - started) / 1_000_000_000);
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + UNPARTITIONED);
+        jdbcTemplate.update("DELETE FROM bookings WHERE item_id IN " +
+                "(SELECT id FROM items WHERE name = 'benchmark-partition')");
+        jdbcTemplate.update("DELETE FROM items WHERE name = 'benchmark-partition'");
+        jdbcTemplate.update("DELETE FROM users WHERE name = 'benchmark-partition'");
+    }
+
+    @Test
+    void compareRecentStatesOnPartitionedAndUnpartitionedTables() {
+        for (BookingRole role : BookingRole.values()) {
+            for (BookingState state : List.of(BookingState.CURRENT, BookingState.FUTURE, BookingState.WAITING)) {
+                compare(role, state);
+            }
+        }
+    }
+
+    private void compare(BookingRole role, BookingState state) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> sample = userIds.subList(0, Math.min(SAMPLE_USERS, userIds.size()));
+
+        BookingQuery probe = query(sample.getFirst(), role, state, now);
+        String plan = String.join("\n", namedParameterJdbcTemplate.queryForList("EXPLAIN " + probe.toSql(),
+                probe.toParameters(), String.class));
+        String lastMonthPartition = "bookings_p" + YearMonth.now().minusMonths(1)
+                .format(DateTimeFormatter.ofPattern("yyyy_MM"));
+        assertFalse(plan.contains(lastMonthPartition), () -> role + " " + state + " is not pruned:\n" + plan);
+
+        for (Long userId : sample.subList(0, Math.min(20, sample.size()))) {
+            BookingQuery query = query(userId, role, state, now);
+            assertEquals(ids(query.toSql(), query), ids(unpartitioned(query.toSql()), query), role + " " + state);
+        }
+
+        long partitionedMillis = Long.MAX_VALUE;
+        long unpartitionedMillis = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            partitionedMillis = Math.min(partitionedMillis, measure(sample, role, state, now, false));
+            unpartitionedMillis = Math.min(unpartitionedMillis, measure(sample, role, state, now, true));
+        }
+
+        log.info("{} {} for {} users: partitioned {} ms, unpartitioned {} ms", role, state, sample.size(),
+                partitionedMillis, unpartitionedMillis);
+    }
+
+    private long measure(List<Long> userIds, BookingRole role, BookingState state, LocalDateTime now,
+                         boolean unpartitioned) {
+        long started = System.nanoTime();
+        for (Long userId : userIds) {
+            BookingQuery query = query(userId, role, state, now);
+            ids(unpartitioned ? unpartitioned(query.toSql()) : query.toSql(), query);
+        }
+        return (System.nanoTime() - started) / 1_000_000;
+    }
+
+    private List<Long> ids(String sql, BookingQuery query) {
+        return namedParameterJdbcTemplate.query(sql, query.toParameters(), (rs, rowNum) -> rs.getLong("id"));
+    }
+
+    private static BookingQuery query(Long userId, BookingRole role, BookingState state, LocalDateTime now) {
+        return BookingQuery.builder()
+                .userId(userId)
+                .role(role)
+                .state(state)
+                .now(now)
+                .limit(51)
+                .periodMode(BookingPeriodMode.RANGE)
+                .build();
+    }
+
+    private static String unpartitioned(String sql) {
+        return sql.replace("FROM bookings b", "FROM " + UNPARTITIONED + " b");
+    }
+}
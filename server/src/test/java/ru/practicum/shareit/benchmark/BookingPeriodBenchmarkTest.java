@@ -0,0 +1,150 @@
+package ru.practicum.shareit.benchmark;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.dto.BookingResponse;
+import ru.practicum.shareit.booking.model.BookingPeriodMode;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.repository.BookingQuery;
+import ru.practicum.shareit.booking.repository.BookingQueryRepository;
+import ru.practicum.shareit.postgres.PostgresTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Slf4j
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@PostgresTest
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {"shareit.item.search.mode=fulltext", "shareit.booking.period-mode=range"})
+public class BookingPeriodBenchmarkTest {
+    private static final int USERS = Integer.getInteger("benchmark.users", 1_000);
+    private static final int ITEMS = Integer.getInteger("benchmark.items", 5_000);
+    private static final int BOOKINGS_PER_ITEM = Integer.getInteger("benchmark.bookings-per-item", 40);
+    private static final int ROUNDS = 3;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookingQueryRepository bookingQueryRepository;
+
+    private List<Long> userIds;
+
+    @BeforeAll
+    void seed() {
+        cleanUp();
+        jdbcTemplate.execute("SELECT setseed(0.42)");
+        jdbcTemplate.update("INSERT INTO users (name, email) " +
+                "SELECT 'benchmark-period', 'benchmark-period-' || g || '@example.com' " +
+                "FROM generate_series(1, ?) g", USERS);
+        userIds = jdbcTemplate.queryForList("SELECT id FROM users WHERE name = 'benchmark-period' ORDER BY id",
+                Long.class);
+
+        jdbcTemplate.update("INSERT INTO items (name, description, is_available, owner_id) " +
+                "SELECT 'benchmark-period', 'Item of the booking period benchmark', true, u.id " +
+                "FROM generate_series(1, ?) g " +
+                "JOIN (SELECT id, row_number() OVER (ORDER BY id) - 1 AS n FROM users " +
+                "WHERE name = 'benchmark-period') u ON u.n = g % ?", ITEMS, USERS);
+
+        jdbcTemplate.update("WITH bookers AS (SELECT array_agg(id) AS ids FROM users " +
+                "WHERE name = 'benchmark-period'), " +
+                "generated AS (SELECT i.id AS item_id, n, " +
+                "b.ids[1 + floor(random() * cardinality(b.ids))::int] AS booker_id, " +
+                "CASE WHEN random() < 0.9 " +
+                "THEN interval '1 hour' * (1 + floor(random() * 48)) " +
+                "ELSE interval '1 day' * (30 + floor(random() * 150)) END AS duration, " +
+                "interval '1 hour' * floor(random() * 72) AS gap " +
+                "FROM items i CROSS JOIN generate_series(1, ?) n CROSS JOIN bookers b " +
+                "WHERE i.name = 'benchmark-period'), " +
+                "shifted AS (SELECT item_id, booker_id, duration, " +
+                "now() - interval '260 days' + sum(gap + duration) OVER (PARTITION BY item_id ORDER BY n) " +
+                "AS end_date " +
+                "FROM generated) " +
+                "INSERT INTO bookings (start_date, end_date, item_id, booker_id, status) " +
+                "SELECT end_date - duration, end_date, item_id, booker_id, 'APPROVED' FROM shifted",
+                BOOKINGS_PER_ITEM);
+        jdbcTemplate.execute("ANALYZE bookings");
+        jdbcTemplate.execute("ANALYZE items");
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM bookings WHERE item_id IN " +
+                "(SELECT id FROM items WHERE name = 'benchmark-period')");
+        jdbcTemplate.update("DELETE FROM items WHERE name = 'benchmark-period'");
+        jdbcTemplate.update("DELETE FROM users WHERE name = 'benchmark-period'");
+    }
+
+    @Test
+    void compareBTreeAndRangeQueriesForBookers() {
+        compare(BookingRole.BOOKER);
+    }
+
+    @Test
+    void compareBTreeAndRangeQueriesForOwners() {
+        compare(BookingRole.OWNER);
+    }
+
+    private void compare(BookingRole role) {
+        for (BookingState state : List.of(BookingState.CURRENT, BookingState.PAST, BookingState.FUTURE)) {
+            compare(role + " " + state,
+                    (userId, now) -> find(userId, role, state, now, BookingPeriodMode.BTREE),
+                    (userId, now) -> find(userId, role, state, now, BookingPeriodMode.RANGE));
+        }
+    }
+
+    private List<BookingResponse> find(Long userId, BookingRole role, BookingState state, LocalDateTime now,
+                                       BookingPeriodMode periodMode) {
+        return bookingQueryRepository.find(BookingQuery.builder()
+                .userId(userId)
+                .role(role)
+                .state(state)
+                .now(now)
+                .limit(51)
+                .periodMode(periodMode)
+                .build());
+    }
+
+    private void compare(String name, PageQuery bTree, PageQuery range) {
+        LocalDateTime now = LocalDateTime.now();
+        for (Long userId : userIds.subList(0, Math.min(20, userIds.size()))) {
+            assertEquals(ids(bTree.find(userId, now)), ids(range.find(userId, now)), name);
+        }
+
+        long bTreeMillis = Long.MAX_VALUE;
+        long rangeMillis = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            bTreeMillis = Math.min(bTreeMillis, measure(bTree, now));
+            rangeMillis = Math.min(rangeMillis, measure(range, now));
+        }
+
+        log.info("{} for {} users: b-tree {} ms, tstzrange {} ms", name, userIds.size(), bTreeMillis, rangeMillis);
+    }
+
+    private long measure(PageQuery query, LocalDateTime now) {
+        long started = System.nanoTime();
+        for (Long userId : userIds) {
+            query.find(userId, now);
+        }
+        return (System.nanoTime() - started) / 1_000_000;
+    }
+
+    private static List<Long> ids(List<BookingResponse> bookings) {
+        return bookings.stream().map(BookingResponse::getId).toList();
+    }
+
+    @FunctionalInterface
+    private interface PageQuery {
+        List<BookingResponse> find(Long userId, LocalDateTime now);
+    }
+}
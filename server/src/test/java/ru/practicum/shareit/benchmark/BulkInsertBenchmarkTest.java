@@ -0,0 +1,92 @@
+package ru.practicum.shareit.benchmark;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+public class BulkInsertBenchmarkTest {
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 20_000);
+    private static final int BATCH_SIZE = 50;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void cleanUp() {
+        EntityManager em = entityManagerFactory.createEntityManager();
+        em.getTransaction().begin();
+        em.createQuery("DELETE FROM Item i WHERE i.name LIKE 'benchmark-%'").executeUpdate();
+        em.createQuery("DELETE FROM User u WHERE u.name LIKE 'benchmark-%'").executeUpdate();
+        em.getTransaction().commit();
+        em.close();
+    }
+
+    @Test
+    void measureBulkInsertThroughput() {
+        insert("warm-up", BATCH_SIZE, ROWS / 10);
+        cleanUp();
+
+        Result unbatched = insert("unbatched", 1, ROWS);
+        cleanUp();
+        Result batched = insert("batched", BATCH_SIZE, ROWS);
+
+        log.info("Inserted {} users and {} items one statement at a time: {} ms, {} rows/s, {} statements",
+                ROWS, ROWS, unbatched.millis(), unbatched.rowsPerSecond(), unbatched.statements());
+        log.info("Inserted {} users and {} items in JDBC batches of {}: {} ms, {} rows/s, {} statements",
+                ROWS, ROWS, BATCH_SIZE, batched.millis(), batched.rowsPerSecond(), batched.statements());
+
+        assertTrue(batched.statements() < unbatched.statements());
+    }
+
+    private Result insert(String run, int batchSize, int rows) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        EntityManager em = entityManagerFactory.createEntityManager();
+        em.unwrap(Session.class).setJdbcBatchSize(batchSize);
+        long started = System.nanoTime();
+
+        em.getTransaction().begin();
+        for (int i = 0; i < rows; i++) {
+            User owner = User.builder()
+                    .name("benchmark-" + run)
+                    .email("benchmark-" + run + "-" + i + "@example.com")
+                    .build();
+            em.persist(owner);
+            em.persist(Item.builder()
+                    .name("benchmark-" + run)
+                    .description("Item created by the bulk insert benchmark")
+                    .available(true)
+                    .owner(owner)
+                    .build());
+
+            if ((i + 1) % BATCH_SIZE == 0) {
+                em.flush();
+                em.clear();
+            }
+        }
+        em.getTransaction().commit();
+        em.close();
+
+        long millis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        return new Result(millis, 2L * rows * 1000 / millis, statistics.getPrepareStatementCount());
+    }
+
+    private record Result(long millis, long rowsPerSecond, long statements) {
+    }
+}
@@ -0,0 +1,94 @@
+package ru.practicum.shareit.budget;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class QueryBudgetPostProcessor implements BeanPostProcessor {
+    private static final List<Class<?>> SERVICES = List.of(ItemService.class, BookingService.class,
+            UserService.class, ItemRequestService.class);
+
+    private final ObjectProvider<EntityManagerFactory> entityManagerFactory;
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        List<Class<?>> services = SERVICES.stream().filter(service -> service.isInstance(bean)).toList();
+        if (services.isEmpty()) {
+            return bean;
+        }
+
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        services.forEach(proxyFactory::addInterface);
+        proxyFactory.addAdvice((MethodInterceptor) this::measure);
+        return proxyFactory.getProxy();
+    }
+
+    private Object measure(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        if (!SERVICES.contains(method.getDeclaringClass())) {
+            return invocation.proceed();
+        }
+
+        QueryBudget budget = AnnotatedElementUtils.findMergedAnnotation(method, QueryBudget.class);
+        String name = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        if (budget == null) {
+            throw new AssertionError(name + " has no @QueryBudget");
+        }
+
+        // Within a transaction of the test Hibernate defers writes to whichever call flushes next, so pending ones are
+        // flushed before the call and those of the call right after it.
+        EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(
+                entityManagerFactory.getObject());
+        flush(entityManager);
+
+        Statistics statistics = entityManagerFactory.getObject().unwrap(SessionFactory.class).getStatistics();
+        long queries = QueryCountingDataSource.count();
+        long writes = QueryCountingDataSource.writes();
+        long rows = statistics.getEntityLoadCount();
+        try {
+            Object result = invocation.proceed();
+            flush(entityManager);
+            return result;
+        } finally {
+            queries = QueryCountingDataSource.count() - queries;
+            writes = QueryCountingDataSource.writes() - writes;
+            rows = statistics.getEntityLoadCount() - rows;
+            log.info("{} issued {} queries and {} writes and loaded {} entities", name, queries, writes, rows);
+            if (queries > budget.queries()) {
+                throw new AssertionError(String.format("%s issued %d queries, its budget is %d",
+                        name, queries, budget.queries()));
+            }
+            if (writes > budget.writes()) {
+                throw new AssertionError(String.format("%s issued %d writes, its budget is %d",
+                        name, writes, budget.writes()));
+            }
+        }
+    }
+
+    private static void flush(EntityManager entityManager) {
+        if (entityManager != null && entityManager.isJoinedToTransaction()) {
+            entityManager.flush();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package ru.practicum.shareit.budget;
+
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.Set;
+
+import static ru.practicum.shareit.jdbc.JdbcProxies.interceptConnections;
+import static ru.practicum.shareit.jdbc.JdbcProxies.proxy;
+
+/**
+ * Counts statements where they reach the connection pool, so queries of Hibernate, JdbcTemplate and
+ * NamedParameterJdbcTemplate are all seen. Reads are counted one by one. Writes are counted per round trip: a batch
+ * and a COPY each count once.
+ */
+@Component
+public class QueryCountingDataSource implements BeanPostProcessor {
+    private static final ThreadLocal<long[]> COUNTS = ThreadLocal.withInitial(() -> new long[2]);
+    private static final Set<String> EXECUTIONS = Set.of("execute", "executeQuery", "executeUpdate",
+            "executeLargeUpdate");
+    private static final Set<String> BATCHES = Set.of("executeBatch", "executeLargeBatch");
+
+    public static long count() {
+        return COUNTS.get()[0];
+    }
+
+    public static long writes() {
+        return COUNTS.get()[1];
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        return interceptConnections(bean, QueryCountingDataSource::countStatements);
+    }
+
+    private static Object countStatements(Method method, Object[] args, Object result) {
+        if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")) {
+            String sql = (String) args[0];
+            return proxy(PreparedStatement.class, statement, (called, calledArgs, calledResult) -> {
+                if (BATCHES.contains(called.getName())) {
+                    COUNTS.get()[1]++;
+                } else if (EXECUTIONS.contains(called.getName()) && calledArgs == null) {
+                    record(sql);
+                }
+                return calledResult;
+            });
+        }
+        if (result instanceof Statement statement && method.getName().equals("createStatement")) {
+            return proxy(Statement.class, statement, (called, calledArgs, calledResult) -> {
+                if (BATCHES.contains(called.getName())) {
+                    COUNTS.get()[1]++;
+                } else if (EXECUTIONS.contains(called.getName()) && calledArgs != null) {
+                    record((String) calledArgs[0]);
+                }
+                return calledResult;
+            });
+        }
+        // COPY goes through the driver's own API, which is only reachable by unwrapping the connection.
+        if (method.getName().equals("unwrap") && args[0] == PGConnection.class) {
+            COUNTS.get()[1]++;
+        }
+        return result;
+    }
+
+    private static void record(String sql) {
+        String statement = sql.stripLeading().toLowerCase();
+        COUNTS.get()[statement.startsWith("select") || statement.startsWith("with") ? 0 : 1]++;
+    }
+}
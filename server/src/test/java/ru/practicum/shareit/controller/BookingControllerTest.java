@@ -11,11 +11,15 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.BookingController;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingResponse;
+import ru.practicum.shareit.booking.dto.BookingStatsDto;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.ErrorResponse;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.nio.charset.StandardCharsets;
@@ -27,6 +31,7 @@ import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -100,6 +105,30 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$.booker.id").value(bookingResponse.getBooker().getId()));
     }
 
+    @Test
+    public void shouldAddBookingsInBatch() throws Exception {
+        when(bookingService.createAll(anyLong(), anyList()))
+                .thenReturn(List.of(
+                        BookingBatchResult.builder().index(0).status(201).booking(bookingResponse).build(),
+                        BookingBatchResult.builder().index(1).status(404)
+                                .error(new ErrorResponse("Search was failed", "There's no item with id: 2"))
+                                .build()));
+
+        mvc.perform(post("/bookings/batch")
+                        .content(mapper.writeValueAsString(List.of(bookingDto, bookingDto)))
+                        .header("X-Sharer-User-Id", 1)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()").value(2))
+                .andExpect(jsonPath("$[0].status").value(201))
+                .andExpect(jsonPath("$[0].booking.id").value(bookingResponse.getId()))
+                .andExpect(jsonPath("$[0].error").doesNotExist())
+                .andExpect(jsonPath("$[1].status").value(404))
+                .andExpect(jsonPath("$[1].error.description").value("There's no item with id: 2"));
+    }
+
     @Test
     public void shouldApproveBooking() throws Exception {
         Mockito
@@ -120,6 +149,38 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$.booker.id").value(bookingResponse.getBooker().getId()));
     }
 
+    @Test
+    public void shouldApproveBookingsInBulk() throws Exception {
+        Mockito
+                .when(bookingService.updateStatuses(anyLong(), anyList(), anyBoolean()))
+                .thenReturn(List.of(
+                        BookingBatchResult.builder()
+                                .index(0)
+                                .status(200)
+                                .booking(bookingResponse)
+                                .build(),
+                        BookingBatchResult.builder()
+                                .index(1)
+                                .status(409)
+                                .error(new ErrorResponse("Booking conflict", "Booking has already been approved"))
+                                .build()));
+
+        mvc.perform(patch("/bookings/batch")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("approved", "true")
+                        .content(mapper.writeValueAsString(List.of(1L, 2L)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()").value(2))
+                .andExpect(jsonPath("$.[0].status").value(200))
+                .andExpect(jsonPath("$.[0].booking.id").value(bookingResponse.getId()))
+                .andExpect(jsonPath("$.[1].status").value(409))
+                .andExpect(jsonPath("$.[1].booking").doesNotExist())
+                .andExpect(jsonPath("$.[1].error.error").value("Booking conflict"));
+    }
+
     @Test
     public void shouldGetBookingById() throws Exception {
         Mockito
@@ -142,8 +203,8 @@ public class BookingControllerTest {
     @Test
     public void shouldGetListOfUsersBookings() throws Exception {
         Mockito
-                .when(bookingService.readBookingsForUser(anyLong(), anyString()))
-                .thenReturn(List.of(bookingResponse));
+                .when(bookingService.readBookingsForUser(anyLong(), anyString(), any(), anyInt()))
+                .thenReturn(new CursorPage<>(List.of(bookingResponse), "next"));
 
         mvc.perform(get("/bookings")
                         .header("X-Sharer-User-Id", 1)
@@ -151,6 +212,7 @@ public class BookingControllerTest {
                         .characterEncoding(StandardCharsets.UTF_8)
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().string(CursorPage.NEXT_CURSOR_HEADER, "next"))
                 .andExpect(jsonPath("$.size()").value(1))
                 .andExpect(jsonPath("$.[0].id").value(bookingResponse.getId()))
                 .andExpect(jsonPath("$.[0].start").value(bookingResponse.getStart().toString()))
@@ -163,8 +225,8 @@ public class BookingControllerTest {
     @Test
     public void shouldGetListOfBookingsUserItems() throws Exception {
         Mockito
-                .when(bookingService.readBookingsForOwner(anyLong(), anyString()))
-                .thenReturn(List.of(bookingResponse));
+                .when(bookingService.readBookingsForOwner(anyLong(), anyString(), any(), anyInt()))
+                .thenReturn(new CursorPage<>(List.of(bookingResponse), null));
 
         mvc.perform(get("/bookings/owner")
                         .header("X-Sharer-User-Id", 1)
@@ -172,6 +234,7 @@ public class BookingControllerTest {
                         .characterEncoding(StandardCharsets.UTF_8)
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(CursorPage.NEXT_CURSOR_HEADER))
                 .andExpect(jsonPath("$.size()").value(1))
                 .andExpect(jsonPath("$.[0].id").value(bookingResponse.getId()))
                 .andExpect(jsonPath("$.[0].start").value(bookingResponse.getStart().toString()))
@@ -180,4 +243,32 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$.[0].item.id").value(bookingResponse.getItem().getId()))
                 .andExpect(jsonPath("$.[0].booker.id").value(bookingResponse.getBooker().getId()));
     }
+
+    @Test
+    public void shouldGetBookingStatsOfUserItems() throws Exception {
+        Mockito
+                .when(bookingService.readStatsForOwner(anyLong()))
+                .thenReturn(BookingStatsDto.builder()
+                        .all(5)
+                        .current(1)
+                        .past(2)
+                        .future(2)
+                        .waiting(1)
+                        .rejected(1)
+                        .expired(1)
+                        .build());
+
+        mvc.perform(get("/bookings/owner/stats")
+                        .header("X-Sharer-User-Id", 1)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.all").value(5))
+                .andExpect(jsonPath("$.current").value(1))
+                .andExpect(jsonPath("$.past").value(2))
+                .andExpect(jsonPath("$.future").value(2))
+                .andExpect(jsonPath("$.waiting").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.expired").value(1));
+    }
 }
@@ -11,21 +11,28 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.exception.InvalidPeriodException;
+import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.ItemController;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoSpecified;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.CursorPage;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -77,8 +84,8 @@ public class ItemControllerTest {
     @Test
     public void shouldGetItems() throws Exception {
         Mockito
-                .when(itemService.findForTheUser(anyLong()))
-                .thenReturn(List.of(itemDtoSpecified));
+                .when(itemService.findForTheUser(anyLong(), any(), anyInt()))
+                .thenReturn(new CursorPage<>(List.of(itemDtoSpecified), null));
 
         mvc.perform(get("/items")
                         .header("X-Sharer-User-Id", 1)
@@ -91,6 +98,68 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$.[0].description").value(itemDtoSpecified.getDescription()));
     }
 
+    @Test
+    public void shouldStreamItemsAsNdjson() throws Exception {
+        Mockito
+                .doAnswer(invocation -> {
+                    Consumer<ItemDtoSpecified> action = invocation.getArgument(1);
+                    action.accept(itemDtoSpecified);
+                    action.accept(itemDtoSpecified);
+                    return null;
+                })
+                .when(itemService).streamForTheUser(anyLong(), any());
+
+        String line = mapper.writeValueAsString(itemDtoSpecified);
+        mvc.perform(get("/items/stream")
+                        .header("X-Sharer-User-Id", 1)
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(line + "\n" + line + "\n"));
+    }
+
+    @Test
+    public void shouldReturnAvailabilityOfItem() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        Mockito
+                .when(itemService.findAvailability(1L, from, from.plusDays(1)))
+                .thenReturn(List.of(new ItemAvailabilityDto(from.plusHours(12), from.plusDays(1))));
+
+        mvc.perform(get("/items/1/availability")
+                        .param("from", "2030-01-01T00:00:00")
+                        .param("to", "2030-01-02T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].start").value("2030-01-01T12:00:00"))
+                .andExpect(jsonPath("$[0].end").value("2030-01-02T00:00:00"));
+    }
+
+    @Test
+    public void shouldNotReturnAvailabilityForInvalidPeriod() throws Exception {
+        Mockito
+                .when(itemService.findAvailability(anyLong(), any(), any()))
+                .thenThrow(new InvalidPeriodException("Start of the period must be before its end"));
+
+        mvc.perform(get("/items/1/availability")
+                        .param("from", "2030-01-02T00:00:00")
+                        .param("to", "2030-01-01T00:00:00"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.description").value("Start of the period must be before its end"));
+    }
+
+    @Test
+    public void shouldNotStreamItemsOfUnknownUser() throws Exception {
+        Mockito
+                .doThrow(new NotFoundException("User with id: 1 is not in repository"))
+                .when(itemService).streamForTheUser(anyLong(), any());
+
+        mvc.perform(get("/items/stream")
+                        .header("X-Sharer-User-Id", 1)
+                        .accept(MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.description").value("User with id: 1 is not in repository"));
+    }
+
     @Test
     public void shouldAddItem() throws Exception {
         Mockito
@@ -130,8 +199,8 @@ public class ItemControllerTest {
     @Test
     public void shouldSearchItems() throws Exception {
         Mockito
-                .when(itemService.search(anyString()))
-                .thenReturn(List.of(itemDto));
+                .when(itemService.search(anyString(), any(), anyInt()))
+                .thenReturn(new CursorPage<>(List.of(itemDto), "next"));
 
         mvc.perform(get("/items/search")
                         .header("X-Sharer-User-Id", 1)
@@ -139,6 +208,7 @@ public class ItemControllerTest {
                         .characterEncoding(StandardCharsets.UTF_8)
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().string(CursorPage.NEXT_CURSOR_HEADER, "next"))
                 .andExpect(jsonPath("$.size()").value(1))
                 .andExpect(jsonPath("$.[0].id").value(itemDtoSpecified.getId()))
                 .andExpect(jsonPath("$.[0].name").value(itemDtoSpecified.getName()))
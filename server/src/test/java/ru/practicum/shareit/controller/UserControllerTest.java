@@ -11,17 +11,23 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.user.UserController;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.mockito.AdditionalAnswers.returnsLastArg;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -62,19 +68,52 @@ public class UserControllerTest {
     @Test
     public void shouldGetUsers() throws Exception {
         Mockito
-                .when(userService.findAll())
-                .thenReturn(List.of(userDto));
+                .when(userService.findAll(any(), anyInt()))
+                .thenReturn(new CursorPage<>(List.of(userDto), "next"));
 
         mvc.perform(get("/users")
                         .characterEncoding(StandardCharsets.UTF_8)
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().string(CursorPage.NEXT_CURSOR_HEADER, "next"))
                 .andExpect(jsonPath("$.size()").value(1))
                 .andExpect(jsonPath("$.[0].id").value(userDto.getId()))
                 .andExpect(jsonPath("$.[0].name").value(userDto.getName()))
                 .andExpect(jsonPath("$.[0].email").value(userDto.getEmail()));
     }
 
+    @Test
+    public void shouldStreamUsersAsNdjson() throws Exception {
+        Mockito
+                .doAnswer(invocation -> {
+                    Consumer<UserDto> action = invocation.getArgument(0);
+                    action.accept(userDto);
+                    action.accept(userDto);
+                    return null;
+                })
+                .when(userService).streamAll(any());
+
+        String line = mapper.writeValueAsString(userDto);
+        mvc.perform(get("/users/stream")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(line + "\n" + line + "\n"));
+    }
+
+    @Test
+    public void shouldReportErrorOfStreamThatFailsBeforeFirstUser() throws Exception {
+        Mockito
+                .doThrow(new IllegalStateException("Users are not available"))
+                .when(userService).streamAll(any());
+
+        mvc.perform(get("/users/stream")
+                        .accept(MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON))
+                .andExpect(status().isInternalServerError())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.description").value("Users are not available"));
+    }
+
     @Test
     public void shouldAddUser() throws Exception {
         Mockito
@@ -0,0 +1,117 @@
+package ru.practicum.shareit.integration;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.availability.BookingAvailabilityIndex;
+import ru.practicum.shareit.booking.availability.IntervalTree;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Transactional
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+public class BookingAvailabilityIndexTest {
+    private static final LocalDateTime ORIGIN = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private BookingAvailabilityIndex bookingAvailabilityIndex;
+
+    @Test
+    void shouldAnswerOverlapQueriesLikeLinearScan() {
+        Random random = new Random(42);
+        IntervalTree tree = new IntervalTree();
+        List<long[]> intervals = new ArrayList<>();
+
+        for (int step = 0; step < 5_000; step++) {
+            if (!intervals.isEmpty() && random.nextInt(3) == 0) {
+                long[] removed = intervals.remove(random.nextInt(intervals.size()));
+                assertTrue(tree.remove(removed[0], hours(removed[1])));
+            } else {
+                long start = random.nextInt(10_000);
+                long[] interval = {step, start, start + 1 + random.nextInt(48)};
+                intervals.add(interval);
+                tree.insert(interval[0], hours(interval[1]), hours(interval[2]));
+            }
+
+            long start = random.nextInt(10_000);
+            long end = start + 1 + random.nextInt(48);
+            boolean expected = intervals.stream().anyMatch(interval -> interval[1] < end && interval[2] > start);
+            assertEquals(expected, tree.overlaps(hours(start), hours(end)));
+            assertEquals(intervals.size(), tree.size());
+        }
+    }
+
+    @Test
+    void shouldRebuildFromActiveBookingsOnly() {
+        User owner = persistUser("owner@example.com");
+        User booker = persistUser("booker@example.com");
+        Item item = Item.builder().name("Item").description("Description").available(true).owner(owner).build();
+        em.persist(item);
+        persistBooking(item, booker, 1, 2, Status.APPROVED);
+        persistBooking(item, booker, 3, 4, Status.REJECTED);
+        em.flush();
+
+        bookingAvailabilityIndex.rebuild();
+
+        assertFalse(bookingAvailabilityIndex.isAvailable(item.getId(), days(1).plusHours(12), days(3)));
+        assertTrue(bookingAvailabilityIndex.isAvailable(item.getId(), days(2), days(5)));
+    }
+
+    @Test
+    void shouldReloadItemWhenIndexIsStale() {
+        User owner = persistUser("owner@example.com");
+        User booker = persistUser("booker@example.com");
+        Item item = Item.builder().name("Item").description("Description").available(true).owner(owner).build();
+        em.persist(item);
+        Booking booking = persistBooking(item, booker, 1, 2, Status.WAITING);
+        em.flush();
+        bookingAvailabilityIndex.add(booking);
+
+        em.createQuery("UPDATE Booking b SET b.status = :status WHERE b.id = :id")
+                .setParameter("status", Status.REJECTED)
+                .setParameter("id", booking.getId())
+                .executeUpdate();
+
+        assertTrue(bookingAvailabilityIndex.isAvailable(item.getId(), days(1), days(2)));
+    }
+
+    private User persistUser(String email) {
+        User user = User.builder().name("User").email(email).build();
+        em.persist(user);
+        return user;
+    }
+
+    private Booking persistBooking(Item item, User booker, int startDay, int endDay, Status status) {
+        Booking booking = Booking.builder()
+                .item(item)
+                .booker(booker)
+                .start(days(startDay))
+                .end(days(endDay))
+                .status(status)
+                .build();
+        em.persist(booking);
+        return booking;
+    }
+
+    private static LocalDateTime days(int days) {
+        return ORIGIN.plusDays(days);
+    }
+
+    private static LocalDateTime hours(long hours) {
+        return ORIGIN.plusHours(hours);
+    }
+}
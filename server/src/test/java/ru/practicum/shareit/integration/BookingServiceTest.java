@@ -2,27 +2,52 @@ package ru.practicum.shareit.integration;
 
 import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.transaction.TestTransaction;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityCalendar;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingResponse;
+import ru.practicum.shareit.booking.dto.BookingStatsDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingExpiryService;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exception.AccessDeniedException;
 import ru.practicum.shareit.exception.BookingDeniedException;
+import ru.practicum.shareit.exception.BookingStatusConflictException;
 import ru.practicum.shareit.exception.BookingUpdateStatusException;
+import ru.practicum.shareit.exception.InvalidPeriodException;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
 import static ru.practicum.shareit.booking.model.Status.*;
 
 @Transactional
@@ -33,6 +58,12 @@ public class BookingServiceTest {
     @Autowired
     private BookingService bookingService;
 
+    @Autowired
+    private BookingExpiryService bookingExpiryService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
     @Autowired
     UserService userService;
     @Autowired
@@ -41,6 +72,9 @@ public class BookingServiceTest {
     @Autowired
     private EntityManager em;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private UserDto owner;
     private UserDto booker;
     private ItemDto item;
@@ -80,6 +114,18 @@ public class BookingServiceTest {
                 .build();
     }
 
+    // Tests that read the in-memory index and calendar back run without the test transaction, because both are
+    // only updated once a booking commits.
+    @AfterEach
+    void cleanUp() {
+        if (TestTransaction.isActive()) {
+            return;
+        }
+        jdbcTemplate.update("DELETE FROM bookings WHERE item_id = ?", item.getId());
+        jdbcTemplate.update("DELETE FROM items WHERE id = ?", item.getId());
+        jdbcTemplate.update("DELETE FROM users WHERE id IN (?, ?)", owner.getId(), booker.getId());
+    }
+
     @Test
     void returnsBookingResponseIfCreate() {
         BookingResponse response = bookingService.create(booker.getId(), bookingDto);
@@ -90,6 +136,15 @@ public class BookingServiceTest {
         assertEquals(item.getId(), response.getItem().getId());
     }
 
+    @Test
+    void persistsNewBookingWithInitialVersion() {
+        assertNull(BookingMapper.toBooking(bookingDto).getVersion());
+
+        BookingResponse response = bookingService.create(booker.getId(), bookingDto);
+
+        assertEquals(0L, em.find(Booking.class, response.getId()).getVersion());
+    }
+
     @Test
     void throwsBookingDeniedExceptionIfItemIsNotValid() {
         item.setAvailable(false);
@@ -152,6 +207,52 @@ public class BookingServiceTest {
                 () -> bookingService.updateStatus(owner.getId(), booking.getId(), true));
     }
 
+    @Test
+    void updatesStatusesOfBookingsInBulkAndReportsOutcomes() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<Long> waiting = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            waiting.add(bookingService.create(booker.getId(), BookingDto.builder()
+                    .itemId(item.getId())
+                    .start(start.plusDays(i))
+                    .end(start.plusDays(i).plusHours(12))
+                    .build()).getId());
+        }
+        bookingService.updateStatus(owner.getId(), waiting.getLast(), true);
+
+        List<BookingBatchResult> forbidden = bookingService.updateStatuses(booker.getId(), waiting, false);
+        assertTrue(forbidden.stream().allMatch(result -> result.getStatus() == 403));
+
+        List<BookingBatchResult> results = bookingService.updateStatuses(owner.getId(),
+                List.of(waiting.get(0), waiting.get(1), waiting.get(2), 999L), false);
+
+        assertEquals(List.of(0, 1, 2, 3), results.stream().map(BookingBatchResult::getIndex).toList());
+        assertEquals(List.of(200, 200, 409, 404), results.stream().map(BookingBatchResult::getStatus).toList());
+        assertEquals(REJECTED, results.getFirst().getBooking().getStatus());
+        assertEquals(REJECTED, bookingService.findById(owner.getId(), waiting.get(1)).getStatus());
+        assertEquals(APPROVED, bookingService.findById(owner.getId(), waiting.get(2)).getStatus());
+        assertNotNull(bookingService.create(booker.getId(), BookingDto.builder()
+                .itemId(item.getId())
+                .start(start.plusHours(1))
+                .end(start.plusHours(2))
+                .build()).getId());
+    }
+
+    @Test
+    void throwsBookingUpdateStatusExceptionIfBulkRequestIsNotValid() {
+        List<Long> withNull = new ArrayList<>();
+        withNull.add(null);
+
+        assertThrows(BookingUpdateStatusException.class,
+                () -> bookingService.updateStatuses(owner.getId(), null, true));
+        assertThrows(BookingUpdateStatusException.class,
+                () -> bookingService.updateStatuses(owner.getId(), List.of(), true));
+        assertThrows(BookingUpdateStatusException.class,
+                () -> bookingService.updateStatuses(owner.getId(), withNull, true));
+        assertThrows(BookingUpdateStatusException.class,
+                () -> bookingService.updateStatuses(owner.getId(), List.of(1L), null));
+    }
+
     @Test
     void returnsCurrentBookingsForOwner() {
         LocalDateTime now = LocalDateTime.now();
@@ -160,8 +261,8 @@ public class BookingServiceTest {
         BookingResponse booking = bookingService.create(booker.getId(), bookingDto);
         bookingService.updateStatus(owner.getId(), booking.getId(), true);
 
-        List<BookingResponse> bookings = (List<BookingResponse>) bookingService.readBookingsForOwner(owner.getId(),
-                "CURRENT");
+        List<BookingResponse> bookings = bookingService.readBookingsForOwner(owner.getId(), "CURRENT", null, 50)
+                .getItems();
 
         assertEquals(1, bookings.size());
         assertEquals(booking.getId(), bookings.getFirst().getId());
@@ -174,8 +275,8 @@ public class BookingServiceTest {
         BookingResponse booking = bookingService.create(booker.getId(), bookingDto);
         bookingService.updateStatus(owner.getId(), booking.getId(), true);
 
-        List<BookingResponse> result = (List<BookingResponse>) bookingService.readBookingsForOwner(owner.getId(),
-                "PAST");
+        List<BookingResponse> result = bookingService.readBookingsForOwner(owner.getId(), "PAST", null, 50)
+                .getItems();
 
         assertEquals(1, result.size());
         assertTrue(result.getFirst().getEnd().isBefore(LocalDateTime.now()));
@@ -185,8 +286,8 @@ public class BookingServiceTest {
     void returnsFutureBookingsForOwner() {
         bookingService.create(booker.getId(), bookingDto);
 
-        List<BookingResponse> result = (List<BookingResponse>) bookingService.readBookingsForOwner(owner.getId(),
-                "FUTURE");
+        List<BookingResponse> result = bookingService.readBookingsForOwner(owner.getId(), "FUTURE", null, 50)
+                .getItems();
 
         assertEquals(1, result.size());
         assertTrue(result.getFirst().getStart().isAfter(LocalDateTime.now()));
@@ -196,8 +297,8 @@ public class BookingServiceTest {
     void returnsWaitingBookingsForOwner() {
         bookingService.create(booker.getId(), bookingDto);
 
-        List<BookingResponse> result = (List<BookingResponse>) bookingService.readBookingsForOwner(owner.getId(),
-                "WAITING");
+        List<BookingResponse> result = bookingService.readBookingsForOwner(owner.getId(), "WAITING", null, 50)
+                .getItems();
 
         assertEquals(1, result.size());
         assertEquals(WAITING, result.getFirst().getStatus());
@@ -208,13 +309,87 @@ public class BookingServiceTest {
         BookingResponse booking = bookingService.create(booker.getId(), bookingDto);
         bookingService.updateStatus(owner.getId(), booking.getId(), false);
 
-        List<BookingResponse> result = (List<BookingResponse>) bookingService.readBookingsForOwner(owner.getId(),
-                "REJECTED");
+        List<BookingResponse> result = bookingService.readBookingsForOwner(owner.getId(), "REJECTED", null, 50)
+                .getItems();
 
         assertEquals(1, result.size());
         assertEquals(REJECTED, result.getFirst().getStatus());
     }
 
+    @Test
+    void expiresWaitingBookingsWhichHaveStarted() {
+        LocalDateTime now = LocalDateTime.now();
+        BookingResponse future = bookingService.create(booker.getId(), bookingDto);
+        BookingDto startedDto = BookingDto.builder()
+                .itemId(item.getId())
+                .start(now.minusHours(2))
+                .end(now.plusHours(12))
+                .build();
+        BookingResponse started = bookingService.create(booker.getId(), startedDto);
+        BookingResponse approved = bookingService.create(booker.getId(), BookingDto.builder()
+                .itemId(item.getId())
+                .start(now.minusDays(2))
+                .end(now.minusDays(1))
+                .build());
+        bookingService.updateStatus(owner.getId(), approved.getId(), true);
+
+        assertEquals(1, bookingExpiryService.expire());
+
+        List<BookingResponse> expired = bookingService.readBookingsForOwner(owner.getId(), "EXPIRED", null, 50)
+                .getItems();
+        assertEquals(List.of(started.getId()), expired.stream().map(BookingResponse::getId).toList());
+        assertEquals(EXPIRED, expired.getFirst().getStatus());
+        assertEquals(List.of(future.getId()), bookingService.readBookingsForOwner(owner.getId(), "WAITING", null, 50)
+                .getItems().stream().map(BookingResponse::getId).toList());
+        assertEquals(APPROVED, bookingService.findById(owner.getId(), approved.getId()).getStatus());
+        assertEquals(0, bookingExpiryService.expire());
+        assertNotNull(bookingService.create(booker.getId(), startedDto).getId());
+    }
+
+    @Test
+    void countsBookingsByStateForOwnerAndBooker() {
+        LocalDateTime now = LocalDateTime.now();
+        BookingResponse past = bookingService.create(booker.getId(), BookingDto.builder()
+                .itemId(item.getId())
+                .start(now.minusDays(3))
+                .end(now.minusDays(2))
+                .build());
+        bookingService.updateStatus(owner.getId(), past.getId(), true);
+        BookingResponse current = bookingService.create(booker.getId(), BookingDto.builder()
+                .itemId(item.getId())
+                .start(now.minusHours(1))
+                .end(now.plusHours(2))
+                .build());
+        bookingService.updateStatus(owner.getId(), current.getId(), true);
+        bookingService.create(booker.getId(), BookingDto.builder()
+                .itemId(item.getId())
+                .start(now.minusHours(10))
+                .end(now.minusHours(8))
+                .build());
+        bookingExpiryService.expire();
+        bookingService.create(booker.getId(), bookingDto);
+        BookingResponse rejected = bookingService.create(booker.getId(), BookingDto.builder()
+                .itemId(item.getId())
+                .start(now.plusDays(3))
+                .end(now.plusDays(4))
+                .build());
+        bookingService.updateStatus(owner.getId(), rejected.getId(), false);
+
+        BookingStatsDto expected = BookingStatsDto.builder()
+                .all(5)
+                .current(1)
+                .past(2)
+                .future(2)
+                .waiting(1)
+                .rejected(1)
+                .expired(1)
+                .build();
+        assertEquals(expected, bookingService.readStatsForOwner(owner.getId()));
+        assertEquals(expected, bookingService.readStatsForUser(booker.getId()));
+        assertEquals(0, bookingService.readStatsForUser(owner.getId()).getAll());
+        assertThrows(NotFoundException.class, () -> bookingService.readStatsForOwner(999L));
+    }
+
     @Test
     void returnsAllSortedByStartDescByDefault() {
         bookingService.create(booker.getId(), bookingDto);
@@ -222,13 +397,13 @@ public class BookingServiceTest {
         BookingDto earlierBookingDto = BookingDto.builder()
                 .itemId(item.getId())
                 .start(LocalDateTime.now().plusHours(2))
-                .end(LocalDateTime.now().plusDays(2))
+                .end(LocalDateTime.now().plusHours(20))
                 .build();
 
         bookingService.create(booker.getId(), earlierBookingDto);
 
-        List<BookingResponse> result = (List<BookingResponse>) bookingService.readBookingsForOwner(owner.getId(),
-                "ALL");
+        List<BookingResponse> result = bookingService.readBookingsForOwner(owner.getId(), "ALL", null, 50)
+                .getItems();
 
         assertEquals(2, result.size());
         assertTrue(result.get(0).getStart().isAfter(result.get(1).getStart()));
@@ -240,7 +415,7 @@ public class BookingServiceTest {
         bookingDto.setEnd(LocalDateTime.now().plusHours(1));
         BookingResponse booking = bookingService.create(booker.getId(), bookingDto);
 
-        List<BookingResponse> result = bookingService.readBookingsForUser(booker.getId(), "CURRENT");
+        List<BookingResponse> result = bookingService.readBookingsForUser(booker.getId(), "CURRENT", null, 50).getItems();
 
         assertEquals(1, result.size());
         assertEquals(booking.getId(), result.getFirst().getId());
@@ -252,7 +427,7 @@ public class BookingServiceTest {
         bookingDto.setEnd(LocalDateTime.now().minusDays(1));
         BookingResponse booking = bookingService.create(booker.getId(), bookingDto);
 
-        List<BookingResponse> result = bookingService.readBookingsForUser(booker.getId(), "PAST");
+        List<BookingResponse> result = bookingService.readBookingsForUser(booker.getId(), "PAST", null, 50).getItems();
 
         assertEquals(1, result.size());
         assertEquals(booking.getId(), result.getFirst().getId());
@@ -262,7 +437,7 @@ public class BookingServiceTest {
     void returnsWaitingBookingsForUser() {
         bookingService.create(booker.getId(), bookingDto);
 
-        List<BookingResponse> result = bookingService.readBookingsForUser(booker.getId(), "WAITING");
+        List<BookingResponse> result = bookingService.readBookingsForUser(booker.getId(), "WAITING", null, 50).getItems();
 
         assertEquals(1, result.size());
         assertEquals(WAITING, result.getFirst().getStatus());
@@ -273,7 +448,7 @@ public class BookingServiceTest {
         BookingResponse booking = bookingService.create(booker.getId(), bookingDto);
         bookingService.updateStatus(owner.getId(), booking.getId(), false);
 
-        List<BookingResponse> result = bookingService.readBookingsForUser(booker.getId(), "REJECTED");
+        List<BookingResponse> result = bookingService.readBookingsForUser(booker.getId(), "REJECTED", null, 50).getItems();
 
         assertEquals(1, result.size());
         assertEquals(REJECTED, result.getFirst().getStatus());
@@ -282,9 +457,211 @@ public class BookingServiceTest {
     @Test
     void returnsFutureBookingsForUser() {
         BookingResponse booking = bookingService.create(booker.getId(), bookingDto);
-        List<BookingResponse> bookings = bookingService.readBookingsForUser(booker.getId(), "FUTURE");
+        List<BookingResponse> bookings = bookingService.readBookingsForUser(booker.getId(), "FUTURE", null, 50).getItems();
 
         assertEquals(1, bookings.size());
         assertEquals(booking.getId(), bookings.getFirst().getId());
     }
+
+    @Test
+    void pagesBookingsOfBookerAndOwnerByStartDesc() {
+        LocalDateTime start = LocalDateTime.now().plusDays(10);
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            expected.addFirst(bookingService.create(booker.getId(), BookingDto.builder()
+                    .itemId(item.getId())
+                    .start(start.plusDays(i))
+                    .end(start.plusDays(i).plusHours(1))
+                    .build()).getId());
+        }
+
+        for (boolean asOwner : List.of(false, true)) {
+            List<Long> actual = new ArrayList<>();
+            String cursor = null;
+            do {
+                CursorPage<BookingResponse> page = asOwner
+                        ? bookingService.readBookingsForOwner(owner.getId(), "ALL", cursor, 2)
+                        : bookingService.readBookingsForUser(booker.getId(), "FUTURE", cursor, 2);
+                assertTrue(page.getItems().size() <= 2);
+                page.getItems().forEach(booking -> actual.add(booking.getId()));
+                cursor = page.getNextCursor();
+            } while (cursor != null);
+
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    void createsValidBookingsOfBatchAndReportsRejectedOnes() {
+        ItemDto bookersItem = itemService.create(booker.getId(), ItemDto.builder()
+                .name("Own item")
+                .description("Item of the booker")
+                .available(true)
+                .build());
+        BookingDto unknownItem = BookingDto.builder()
+                .itemId(Long.MAX_VALUE)
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .build();
+        BookingDto ownItem = BookingDto.builder()
+                .itemId(bookersItem.getId())
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .build();
+        BookingDto endBeforeStart = BookingDto.builder()
+                .itemId(item.getId())
+                .start(LocalDateTime.now().plusDays(2))
+                .end(LocalDateTime.now().plusDays(1))
+                .build();
+        BookingDto later = BookingDto.builder()
+                .itemId(item.getId())
+                .start(LocalDateTime.now().plusDays(3))
+                .end(LocalDateTime.now().plusDays(4))
+                .build();
+
+        List<BookingBatchResult> results = bookingService.createAll(booker.getId(),
+                List.of(bookingDto, unknownItem, ownItem, endBeforeStart, later));
+
+        assertEquals(List.of(0, 1, 2, 3, 4), results.stream().map(BookingBatchResult::getIndex).toList());
+        assertEquals(List.of(201, 404, 400, 400, 201), results.stream().map(BookingBatchResult::getStatus).toList());
+        assertEquals(item.getId(), results.get(0).getBooking().getItem().getId());
+        assertNull(results.get(1).getBooking());
+        assertNotNull(results.get(3).getError().getDescription());
+        assertEquals(List.of(results.get(4).getBooking().getId(), results.get(0).getBooking().getId()),
+                bookingService.readBookingsForUser(booker.getId(), "ALL", null, 50).getItems().stream()
+                        .map(BookingResponse::getId)
+                        .toList());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void throwsBookingDeniedExceptionIfPeriodOverlapsActiveBooking() {
+        bookingService.create(booker.getId(), bookingDto);
+        BookingDto overlapping = BookingDto.builder()
+                .itemId(item.getId())
+                .start(bookingDto.getStart().plusHours(12))
+                .end(bookingDto.getEnd().plusHours(12))
+                .build();
+
+        BookingDeniedException exception = assertThrows(BookingDeniedException.class,
+                () -> bookingService.create(booker.getId(), overlapping));
+        assertEquals("Item is already booked for the requested period", exception.getMessage());
+    }
+
+    @Test
+    void allowsAdjacentBookingAndBookingOverRejectedOne() {
+        BookingResponse first = bookingService.create(booker.getId(), bookingDto);
+        BookingDto adjacent = BookingDto.builder()
+                .itemId(item.getId())
+                .start(bookingDto.getEnd())
+                .end(bookingDto.getEnd().plusDays(1))
+                .build();
+
+        assertNotNull(bookingService.create(booker.getId(), adjacent).getId());
+
+        bookingService.updateStatus(owner.getId(), first.getId(), false);
+        BookingDto sameAsRejected = BookingDto.builder()
+                .itemId(item.getId())
+                .start(bookingDto.getStart())
+                .end(bookingDto.getEnd())
+                .build();
+
+        assertNotNull(bookingService.create(booker.getId(), sameAsRejected).getId());
+        assertThrows(BookingStatusConflictException.class,
+                () -> bookingService.updateStatus(owner.getId(), first.getId(), true));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void returnsFreeWindowsOfItemAndRefreshesThemOnBookingChanges() {
+        LocalDateTime day = LocalDate.now().plusDays(1).atStartOfDay();
+        BookingResponse morning = bookingService.create(booker.getId(), BookingDto.builder()
+                .itemId(item.getId())
+                .start(day.plusHours(10))
+                .end(day.plusHours(14))
+                .build());
+
+        assertEquals(List.of(new ItemAvailabilityDto(day, day.plusHours(10)),
+                        new ItemAvailabilityDto(day.plusHours(14), day.plusDays(2))),
+                itemService.findAvailability(item.getId(), day, day.plusDays(2)));
+
+        bookingService.create(booker.getId(), BookingDto.builder()
+                .itemId(item.getId())
+                .start(day.plusHours(20))
+                .end(day.plusHours(30))
+                .build());
+
+        assertEquals(List.of(new ItemAvailabilityDto(day.plusHours(14), day.plusHours(20)),
+                        new ItemAvailabilityDto(day.plusHours(30), day.plusDays(2))),
+                itemService.findAvailability(item.getId(), day.plusHours(12), day.plusDays(2)));
+
+        bookingService.updateStatus(owner.getId(), morning.getId(), false);
+
+        assertEquals(List.of(new ItemAvailabilityDto(day, day.plusHours(20)),
+                        new ItemAvailabilityDto(day.plusHours(30), day.plusDays(2))),
+                itemService.findAvailability(item.getId(), day, day.plusDays(2)));
+    }
+
+    // The booking commits and evicts its days while the calendar is still loading them from before the commit.
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void doesNotCacheFreeWindowsLoadedBeforeBookingCommits() {
+        LocalDateTime day = LocalDate.now().plusDays(1).atStartOfDay();
+        BookingDto booked = BookingDto.builder()
+                .itemId(item.getId())
+                .start(day.plusHours(10))
+                .end(day.plusHours(14))
+                .build();
+        AtomicReference<ItemAvailabilityCalendar> calendar = new AtomicReference<>();
+        AtomicBoolean committed = new AtomicBoolean();
+        BookingRepository repository = mock(BookingRepository.class, delegatesTo(bookingRepository));
+        doAnswer(invocation -> {
+            List<Booking> bookings = bookingRepository
+                    .findAllByItemIdAndStatusInAndStartBeforeAndEndAfterOrderByStartAsc(invocation.getArgument(0),
+                            invocation.getArgument(1), invocation.getArgument(2), invocation.getArgument(3));
+            if (committed.compareAndSet(false, true)) {
+                bookingService.create(booker.getId(), booked);
+                calendar.get().evict(item.getId(), booked.getStart(), booked.getEnd());
+            }
+            return bookings;
+        }).when(repository).findAllByItemIdAndStatusInAndStartBeforeAndEndAfterOrderByStartAsc(any(), any(), any(),
+                any());
+        calendar.set(new ItemAvailabilityCalendar(repository,
+                new CaffeineCacheManager(ItemAvailabilityCalendar.ITEM_AVAILABILITY_CACHE)));
+
+        assertEquals(List.of(new ItemAvailabilityDto(day, day.plusDays(1))),
+                calendar.get().findFreeWindows(item.getId(), day, day.plusDays(1)));
+        assertEquals(List.of(new ItemAvailabilityDto(day, day.plusHours(10)),
+                        new ItemAvailabilityDto(day.plusHours(14), day.plusDays(1))),
+                calendar.get().findFreeWindows(item.getId(), day, day.plusDays(1)));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void refreshesCachedStatsOnBookingChanges() {
+        assertEquals(0, bookingService.readStatsForOwner(owner.getId()).getAll());
+        assertEquals(0, bookingService.readStatsForUser(booker.getId()).getAll());
+
+        BookingResponse booking = bookingService.create(booker.getId(), bookingDto);
+
+        assertEquals(1, bookingService.readStatsForOwner(owner.getId()).getWaiting());
+        assertEquals(1, bookingService.readStatsForUser(booker.getId()).getWaiting());
+
+        bookingService.updateStatus(owner.getId(), booking.getId(), false);
+
+        assertEquals(1, bookingService.readStatsForOwner(owner.getId()).getRejected());
+        assertEquals(0, bookingService.readStatsForUser(booker.getId()).getWaiting());
+    }
+
+    @Test
+    void throwsInvalidPeriodExceptionIfAvailabilityPeriodIsNotValid() {
+        LocalDateTime now = LocalDateTime.now();
+
+        assertThrows(InvalidPeriodException.class,
+                () -> itemService.findAvailability(item.getId(), now, now));
+        assertThrows(InvalidPeriodException.class,
+                () -> itemService.findAvailability(item.getId(), now, now.plusYears(1)));
+        assertThrows(NotFoundException.class,
+                () -> itemService.findAvailability(item.getId() + 1000, now, now.plusDays(1)));
+    }
 }
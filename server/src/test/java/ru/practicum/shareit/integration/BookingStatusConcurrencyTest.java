@@ -0,0 +1,172 @@
+package ru.practicum.shareit.integration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingResponse;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.BookingStatusConflictException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+public class BookingStatusConcurrencyTest {
+    private static final int BOOKINGS = 20;
+    private static final int THREADS = 8;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UserDto owner;
+    private UserDto booker;
+    private ItemDto item;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString();
+        owner = userService.create(UserDto.builder().name("Owner").email("owner-" + suffix + "@example.com").build());
+        booker = userService.create(UserDto.builder().name("Booker").email("booker-" + suffix + "@example.com")
+                .build());
+        item = itemService.create(owner.getId(), ItemDto.builder()
+                .name("Item")
+                .description("Contended item")
+                .available(true)
+                .build());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM bookings WHERE item_id = ?", item.getId());
+        jdbcTemplate.update("DELETE FROM items WHERE id = ?", item.getId());
+        jdbcTemplate.update("DELETE FROM users WHERE id IN (?, ?)", owner.getId(), booker.getId());
+    }
+
+    @Test
+    void exactlyOneStatusTransitionWinsUnderContention() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        try {
+            for (int i = 0; i < BOOKINGS; i++) {
+                BookingDto bookingDto = BookingDto.builder()
+                        .itemId(item.getId())
+                        .start(start.plusHours(i))
+                        .end(start.plusHours(i + 1))
+                        .build();
+                BookingResponse booking = bookingService.create(booker.getId(), bookingDto);
+
+                CountDownLatch ready = new CountDownLatch(THREADS);
+                CountDownLatch go = new CountDownLatch(1);
+                List<Future<Status>> results = new ArrayList<>();
+                for (int thread = 0; thread < THREADS; thread++) {
+                    boolean approved = thread % 2 == 0;
+                    results.add(executor.submit(() -> {
+                        ready.countDown();
+                        go.await();
+                        try {
+                            return bookingService.updateStatus(owner.getId(), booking.getId(), approved).getStatus();
+                        } catch (BookingStatusConflictException e) {
+                            return null;
+                        }
+                    }));
+                }
+                ready.await();
+                go.countDown();
+
+                List<Status> winners = new ArrayList<>();
+                for (Future<Status> result : results) {
+                    Status status = result.get();
+                    if (status != null) {
+                        winners.add(status);
+                    }
+                }
+
+                assertEquals(1, winners.size());
+                assertEquals(winners.getFirst(), bookingService.findById(booker.getId(), booking.getId()).getStatus());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void exactlyOneBulkStatusTransitionWinsPerBookingUnderContention() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<Long> bookingIds = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            bookingIds.add(bookingService.create(booker.getId(), BookingDto.builder()
+                    .itemId(item.getId())
+                    .start(start.plusHours(i))
+                    .end(start.plusHours(i + 1))
+                    .build()).getId());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch ready = new CountDownLatch(THREADS);
+            CountDownLatch go = new CountDownLatch(1);
+            List<Future<List<BookingBatchResult>>> results = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                boolean approved = thread % 2 == 0;
+                results.add(executor.submit(() -> {
+                    ready.countDown();
+                    go.await();
+                    return bookingService.updateStatuses(owner.getId(), bookingIds, approved);
+                }));
+            }
+            ready.await();
+            go.countDown();
+
+            Map<Long, List<Status>> winners = new HashMap<>();
+            for (Future<List<BookingBatchResult>> result : results) {
+                for (BookingBatchResult entry : result.get()) {
+                    if (entry.getStatus() == 200) {
+                        winners.computeIfAbsent(entry.getBooking().getId(), id -> new ArrayList<>())
+                                .add(entry.getBooking().getStatus());
+                    } else {
+                        assertEquals(409, entry.getStatus());
+                    }
+                }
+            }
+
+            assertEquals(BOOKINGS, winners.size());
+            for (Long bookingId : bookingIds) {
+                assertEquals(1, winners.get(bookingId).size());
+                assertEquals(winners.get(bookingId).getFirst(),
+                        bookingService.findById(booker.getId(), bookingId).getStatus());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
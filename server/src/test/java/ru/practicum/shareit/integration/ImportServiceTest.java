@@ -0,0 +1,154 @@
+package ru.practicum.shareit.integration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.importing.dto.ImportJobDto;
+import ru.practicum.shareit.importing.dto.ImportRowError;
+import ru.practicum.shareit.importing.model.ImportFormat;
+import ru.practicum.shareit.importing.model.ImportStatus;
+import ru.practicum.shareit.importing.service.ImportService;
+import ru.practicum.shareit.item.dto.ItemDtoSpecified;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.ItemSearchRank;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {"shareit.import.batch-size=2", "shareit.item.search.mode=index"})
+public class ImportServiceTest {
+
+    @Autowired
+    private ImportService importService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserExistenceCache userExistenceCache;
+
+    @Autowired
+    private ItemSearchIndex itemSearchIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String suffix;
+
+    @BeforeEach
+    void setUp() {
+        suffix = UUID.randomUUID().toString();
+        userService.create(UserDto.builder().name("Existing").email(email("existing")).build());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM items WHERE owner_id IN (SELECT id FROM users WHERE email LIKE ?)",
+                "%" + suffix + "%");
+        jdbcTemplate.update("DELETE FROM users WHERE email LIKE ?", "%" + suffix + "%");
+    }
+
+    @Test
+    void importsUsersAndItemsAndReportsRejectedRows() throws InterruptedException {
+        ImportJobDto users = await(importService.importUsers(ImportFormat.NDJSON, body(
+                "{\"name\": \"Ann\", \"email\": \"" + email("ann") + "\"}",
+                "{\"name\": \"Bob\", \"email\": \"not an email\"}",
+                "{\"name\": \"Ann again\", \"email\": \"" + email("ann") + "\"}",
+                "{\"name\": \"Broken\"",
+                "",
+                "{\"name\": \"Cid\", \"email\": \"" + email("cid") + "\"}",
+                "{\"name\": \"Eve\", \"email\": \"" + email("existing") + "\"}")));
+
+        assertEquals(ImportStatus.COMPLETED, users.getStatus());
+        assertEquals(6, users.getProcessed());
+        assertEquals(2, users.getImported());
+        assertEquals(4, users.getFailed());
+        assertEquals(List.of(2L, 3L, 4L, 7L), users.getErrors().stream().map(ImportRowError::getLine).sorted()
+                .toList());
+
+        Long ann = userRepository.findByEmail(email("ann")).orElseThrow().getId();
+        Long cid = userRepository.findByEmail(email("cid")).orElseThrow().getId();
+        assertEquals("Cid", userService.findById(cid).getName());
+        assertTrue(userExistenceCache.exists(ann));
+
+        ImportJobDto items = await(importService.importItems(ImportFormat.CSV, body(
+                "name,description,available,owner,requestId",
+                "Drill,\"Drill, with \"\"quotes\"\"\",true," + ann + ",",
+                "Saw,Saw of an unknown owner,true," + Long.MAX_VALUE + ",",
+                "Hammer,Hammer for an unknown request,false," + cid + "," + Long.MAX_VALUE,
+                ",Item without a name,true," + cid + ",",
+                "Ladder,Broken line,true",
+                "Ladder,Ladder,false," + cid + ",")));
+
+        assertEquals(ImportStatus.COMPLETED, items.getStatus());
+        assertEquals(2, items.getImported());
+        assertEquals(4, items.getFailed());
+
+        List<ItemDtoSpecified> annItems = itemService.findForTheUser(ann, null, 10).getItems();
+        assertEquals(1, annItems.size());
+        assertEquals("Drill, with \"quotes\"", annItems.getFirst().getDescription());
+        assertEquals(1, itemService.findForTheUser(cid, null, 10).getItems().size());
+
+        assertEquals(items.getId(), importService.findById(items.getId()).getId());
+        assertThrows(NotFoundException.class, () -> importService.findById(Long.MAX_VALUE));
+    }
+
+    @Test
+    void indexesItemsOfBatchesWrittenBeforeImportFails() throws InterruptedException {
+        Long owner = userRepository.findByEmail(email("existing")).orElseThrow().getId();
+        String name = "Partial " + suffix.substring(0, 8);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.writeBytes(String.join("\n", "name,description,available,owner,requestId",
+                name + ",First imported item,true," + owner + ",",
+                name + ",Second imported item,true," + owner + ",").getBytes(StandardCharsets.UTF_8));
+        // Past the reader's buffer, so the first batch is written before the malformed byte is decoded.
+        body.writeBytes("\n".repeat(10_000).getBytes(StandardCharsets.UTF_8));
+        body.write(0xFF);
+
+        ImportJobDto items = await(importService.importItems(ImportFormat.CSV,
+                new ByteArrayInputStream(body.toByteArray())));
+
+        assertEquals(ImportStatus.FAILED, items.getStatus());
+        assertEquals(2, items.getImported());
+        assertEquals(2, itemSearchIndex.search(name, ItemSearchRank.NONE, 0, 10).size());
+    }
+
+    private ImportJobDto await(ImportJobDto job) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        ImportJobDto current = job;
+        while (current.getStatus() == ImportStatus.RUNNING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            current = importService.findById(job.getId());
+        }
+        return current;
+    }
+
+    private String email(String name) {
+        return name + "-" + suffix + "@example.com";
+    }
+
+    private static ByteArrayInputStream body(String... lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+}
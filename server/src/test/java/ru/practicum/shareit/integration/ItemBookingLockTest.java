@@ -0,0 +1,158 @@
+package ru.practicum.shareit.integration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.lock.ItemBookingLock;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.BookingDeniedException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+public class ItemBookingLockTest {
+    private static final int THREADS = 8;
+
+    @Autowired
+    private ItemBookingLock itemBookingLock;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UserDto owner;
+    private UserDto booker;
+    private ItemDto item;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString();
+        owner = userService.create(UserDto.builder().name("Owner").email("owner-" + suffix + "@example.com").build());
+        booker = userService.create(UserDto.builder().name("Booker").email("booker-" + suffix + "@example.com")
+                .build());
+        item = itemService.create(owner.getId(), ItemDto.builder()
+                .name("Item")
+                .description("Hot item")
+                .available(true)
+                .build());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM bookings WHERE item_id = ?", item.getId());
+        jdbcTemplate.update("DELETE FROM items WHERE id = ?", item.getId());
+        jdbcTemplate.update("DELETE FROM users WHERE id IN (?, ?)", owner.getId(), booker.getId());
+    }
+
+    @Test
+    void serializesOverlappingBookingsOfTheSameItem() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        try {
+            CountDownLatch ready = new CountDownLatch(THREADS);
+            CountDownLatch go = new CountDownLatch(1);
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                BookingDto bookingDto = BookingDto.builder()
+                        .itemId(item.getId())
+                        .start(start.plusMinutes(thread))
+                        .end(start.plusHours(2))
+                        .build();
+                results.add(executor.submit(() -> {
+                    ready.countDown();
+                    go.await();
+                    try {
+                        bookingService.create(booker.getId(), bookingDto);
+                        return true;
+                    } catch (BookingDeniedException e) {
+                        return false;
+                    }
+                }));
+            }
+            ready.await();
+            go.countDown();
+
+            int created = 0;
+            for (Future<Boolean> result : results) {
+                created += result.get() ? 1 : 0;
+            }
+            assertEquals(1, created);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void blocksTheSameItemAndLetsOtherItemsProceed() throws Exception {
+        long itemId = 1;
+        long otherItemId = 2;
+        String stripe = String.valueOf(itemId % 64);
+        double contended = meterRegistry.counter("shareit.booking.lock.contention", "mode", "striped",
+                "stripe", stripe).count();
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+
+        try {
+            Future<?> holder = executor.submit(() -> itemBookingLock.withLock(itemId, () -> {
+                locked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return null;
+            }));
+            locked.await();
+
+            Future<Boolean> other = executor.submit(() -> itemBookingLock.withLock(otherItemId, () -> true));
+            assertTrue(other.get(5, TimeUnit.SECONDS));
+
+            Future<Boolean> same = executor.submit(() -> itemBookingLock.withLock(itemId, () -> true));
+            Thread.sleep(200);
+            assertFalse(same.isDone());
+
+            release.countDown();
+            holder.get(5, TimeUnit.SECONDS);
+            assertTrue(same.get(5, TimeUnit.SECONDS));
+            assertEquals(contended + 1, meterRegistry.counter("shareit.booking.lock.contention", "mode", "striped",
+                    "stripe", stripe).count());
+            assertTrue(meterRegistry.timer("shareit.booking.lock.wait", "mode", "striped", "stripe", stripe)
+                    .count() > 0);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+}
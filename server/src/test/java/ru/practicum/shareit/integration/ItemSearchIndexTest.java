@@ -0,0 +1,145 @@
+package ru.practicum.shareit.integration;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Transactional
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "shareit.item.search.mode=index")
+public class ItemSearchIndexTest {
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemSearchIndex itemSearchIndex;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = User.builder().name("Owner").email("index-owner@email.com").build();
+        em.persist(owner);
+        em.flush();
+    }
+
+    @Test
+    void shouldFindCreatedItemsRankedByMatchQuality() {
+        ItemDto inDescription = itemService.create(owner.getId(), item("Saw", "Works like a quasar drill"));
+        ItemDto inName = itemService.create(owner.getId(), item("Cordless quasar", "Heavy"));
+        ItemDto prefix = itemService.create(owner.getId(), item("Quasar drill", "Compact"));
+        ItemDto exact = itemService.create(owner.getId(), item("QUASAR", "Small"));
+
+        List<Long> ids = search("quaSar").stream().map(ItemDto::getId).toList();
+
+        assertEquals(List.of(exact.getId(), prefix.getId(), inName.getId(), inDescription.getId()), ids);
+    }
+
+    @Test
+    void shouldNotFindUnavailableItems() {
+        ItemDto available = itemService.create(owner.getId(), item("Nebula tent", "Tent"));
+        ItemDto unavailable = itemService.create(owner.getId(), item("Nebula lamp", "Lamp"));
+        itemService.update(owner.getId(), unavailable.getId(), ItemDto.builder().available(false).build());
+
+        List<Long> ids = search("nebula").stream().map(ItemDto::getId).toList();
+
+        assertEquals(List.of(available.getId()), ids);
+    }
+
+    @Test
+    void shouldReflectUpdatesAndDeletion() {
+        ItemDto created = itemService.create(owner.getId(), item("Pulsar kayak", "Boat"));
+        itemService.update(owner.getId(), created.getId(), ItemDto.builder().name("Magnetar kayak").build());
+
+        assertTrue(search("pulsar").isEmpty());
+        assertEquals(1, search("magnetar").size());
+
+        itemService.deleteById(created.getId());
+
+        assertTrue(search("magnetar").isEmpty());
+    }
+
+    @Test
+    void shouldMatchShortQueries() {
+        ItemDto created = itemService.create(owner.getId(), item("Zq", "Two letters"));
+
+        List<Long> ids = search("zq").stream().map(ItemDto::getId).toList();
+
+        assertEquals(List.of(created.getId()), ids);
+    }
+
+    @Test
+    void shouldMatchRegardlessOfDefaultLocale() {
+        Locale locale = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr"));
+        try {
+            ItemDto created = itemService.create(owner.getId(), item("TITAN drill", "Heavy"));
+
+            List<Long> ids = search("titan").stream().map(ItemDto::getId).toList();
+
+            assertEquals(List.of(created.getId()), ids);
+        } finally {
+            Locale.setDefault(locale);
+        }
+    }
+
+    @Test
+    void shouldRebuildFromRepository() {
+        Item item = Item.builder().name("Quokka bike").description("Bike").available(true).owner(owner).build();
+        em.persist(item);
+        em.flush();
+
+        assertTrue(search("quokka").isEmpty());
+
+        itemSearchIndex.rebuild();
+
+        List<ItemDto> result = search("quokka");
+        assertEquals(1, result.size());
+        assertEquals(item.getId(), result.getFirst().getId());
+        assertEquals(owner.getId(), result.getFirst().getOwner());
+    }
+
+    @Test
+    void shouldPageThroughResultsWithCursor() {
+        ItemDto first = itemService.create(owner.getId(), item("Photon", "Lamp"));
+        ItemDto second = itemService.create(owner.getId(), item("Photon torch", "Lamp"));
+        ItemDto third = itemService.create(owner.getId(), item("Torch", "Photon powered"));
+
+        CursorPage<ItemDto> firstPage = itemService.search("photon", null, 2);
+        CursorPage<ItemDto> secondPage = itemService.search("photon", firstPage.getNextCursor(), 2);
+
+        assertEquals(List.of(first.getId(), second.getId()), firstPage.getItems().stream().map(ItemDto::getId).toList());
+        assertEquals(List.of(third.getId()), secondPage.getItems().stream().map(ItemDto::getId).toList());
+        assertNull(secondPage.getNextCursor());
+    }
+
+    private List<ItemDto> search(String text) {
+        return itemService.search(text, null, 50).getItems();
+    }
+
+    private ItemDto item(String name, String description) {
+        return ItemDto.builder()
+                .name(name)
+                .description(description)
+                .available(true)
+                .build();
+    }
+}
@@ -3,6 +3,8 @@ package ru.practicum.shareit.integration;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.TypedQuery;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,16 +14,22 @@ import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.exception.AccessDeniedException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.PaginationException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoSpecified;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemBookingPointerService;
+import ru.practicum.shareit.item.service.ItemDetailsLoader;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 
@@ -42,6 +50,12 @@ public class ItemServiceTest {
     @Autowired
     private ItemService itemService;
 
+    @Autowired
+    private ItemBookingPointerService itemBookingPointerService;
+
+    @Autowired
+    private ItemDetailsLoader itemDetailsLoader;
+
     private User owner;
     private User user;
     private ItemRequest itemRequest;
@@ -148,7 +162,7 @@ public class ItemServiceTest {
         itemService.create(owner.getId(), itemDto);
         em.flush();
 
-        Collection<ItemDto> results = itemService.search("desc");
+        Collection<ItemDto> results = itemService.search("desc", null, 50).getItems();
 
         TypedQuery<Item> query = em.createQuery(
                 "SELECT i FROM Item i WHERE lower(i.name) LIKE lower(concat('%', :text,'%')) " +
@@ -159,6 +173,31 @@ public class ItemServiceTest {
         assertEquals(expected.size(), results.size());
     }
 
+    @Test
+    void shouldPageSearchResultsByRelevanceAndId() {
+        ItemDto inDescription = itemService.create(owner.getId(),
+                ItemDto.builder().name("Saw").description("Sharp Hammer").available(true).build());
+        ItemDto inName = itemService.create(owner.getId(),
+                ItemDto.builder().name("Big hammer").description("Tool").available(true).build());
+        ItemDto exact = itemService.create(owner.getId(),
+                ItemDto.builder().name("Hammer").description("Tool").available(true).build());
+
+        CursorPage<ItemDto> firstPage = itemService.search("hammer", null, 2);
+        CursorPage<ItemDto> secondPage = itemService.search("hammer", firstPage.getNextCursor(), 2);
+
+        assertThat(firstPage.getItems().stream().map(ItemDto::getId).toList(),
+                contains(exact.getId(), inName.getId()));
+        assertThat(secondPage.getItems().stream().map(ItemDto::getId).toList(),
+                contains(inDescription.getId()));
+        assertNull(secondPage.getNextCursor());
+    }
+
+    @Test
+    void shouldThrowPaginationExceptionIfCursorIsNotValid() {
+        assertThrows(PaginationException.class, () -> itemService.search("hammer", "not a cursor", 2));
+        assertThrows(PaginationException.class, () -> itemService.search("hammer", null, 0));
+    }
+
     @Test
     void shouldRollbackWhenNotOwner() {
         ItemDto created = itemService.create(owner.getId(), itemDto);
@@ -196,7 +235,7 @@ public class ItemServiceTest {
         em.flush();
         em.clear();
 
-        Collection<ItemDtoSpecified> result = itemService.findForTheUser(owner.getId());
+        Collection<ItemDtoSpecified> result = itemService.findForTheUser(owner.getId(), null, 50).getItems();
 
         assertThat(result, hasSize(2));
 
@@ -227,7 +266,7 @@ public class ItemServiceTest {
         em.flush();
         em.clear();
 
-        Collection<ItemDtoSpecified> result = itemService.findForTheUser(user.getId());
+        Collection<ItemDtoSpecified> result = itemService.findForTheUser(user.getId(), null, 50).getItems();
 
         assertThat(result, empty());
 
@@ -237,7 +276,7 @@ public class ItemServiceTest {
         em.flush();
         em.clear();
 
-        result = itemService.findForTheUser(user.getId());
+        result = itemService.findForTheUser(user.getId(), null, 50).getItems();
         ItemDtoSpecified dto = result.iterator().next();
 
         assertThat(dto.getLastBooking(), notNullValue());
@@ -253,7 +292,7 @@ public class ItemServiceTest {
         em.flush();
         em.clear();
 
-        Collection<ItemDtoSpecified> result = itemService.findForTheUser(owner.getId());
+        Collection<ItemDtoSpecified> result = itemService.findForTheUser(owner.getId(), null, 50).getItems();
         ItemDtoSpecified dto = result.iterator().next();
 
         assertThat(dto.getComments(), hasSize(1));
@@ -267,18 +306,125 @@ public class ItemServiceTest {
         em.flush();
         em.clear();
 
-        Collection<ItemDtoSpecified> result = itemService.findForTheUser(owner.getId());
+        Collection<ItemDtoSpecified> result = itemService.findForTheUser(owner.getId(), null, 50).getItems();
         ItemDtoSpecified dto = result.iterator().next();
 
         assertThat(dto.getLastBooking(), nullValue());
         assertThat(dto.getNextBooking(), nullValue());
     }*/
 
+    @Test
+    void shouldLoadHeavilyBookedItemWithLinearRowCount() {
+        ItemDto item = itemService.create(owner.getId(), itemDto);
+        for (int i = 0; i < 200; i++) {
+            createPastBooking(item.getId());
+        }
+        for (int i = 0; i < 100; i++) {
+            createComment(item.getId());
+        }
+
+        em.flush();
+        em.clear();
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ItemDtoSpecified byId = itemService.findById(owner.getId(), item.getId());
+
+        assertThat(byId.getComments(), hasSize(100));
+        assertThat(byId.getLastBooking(), notNullValue());
+        assertThat(statistics.getPrepareStatementCount(), lessThanOrEqualTo(3L));
+        assertThat(executedRows(statistics), equalTo(101L));
+
+        em.clear();
+        statistics.clear();
+
+        Collection<ItemDtoSpecified> forOwner = itemService.findForTheUser(owner.getId(), null, 50).getItems();
+
+        assertThat(forOwner.iterator().next().getComments(), hasSize(100));
+        assertThat(statistics.getPrepareStatementCount(), lessThanOrEqualTo(3L));
+        assertThat(executedRows(statistics), lessThanOrEqualTo(102L));
+    }
+
+    @Test
+    void shouldServeItemDetailsFromCacheUntilItemChanges() {
+        ItemDto item = itemService.create(owner.getId(), itemDto);
+        itemService.findById(owner.getId(), item.getId());
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ItemDtoSpecified cached = itemService.findById(owner.getId(), item.getId());
+        assertThat(statistics.getPrepareStatementCount(), equalTo(0L));
+        cached.setName("Changed by caller");
+        assertThat(itemService.findById(user.getId(), item.getId()).getName(), equalTo(item.getName()));
+
+        itemService.update(owner.getId(), item.getId(), ItemDto.builder().name("Updated").build());
+        assertThat(itemService.findById(user.getId(), item.getId()).getName(), equalTo("Updated"));
+
+        createPastBooking(item.getId());
+        assertThat(itemService.findById(owner.getId(), item.getId()).getLastBooking(), notNullValue());
+    }
+
+    @Test
+    void shouldRollBookingPointersForwardWhenTheyExpire() {
+        ItemDto item = itemService.create(owner.getId(), itemDto);
+        Booking booking = Booking.builder()
+                .start(LocalDateTime.now().minusDays(2))
+                .end(LocalDateTime.now().minusDays(1))
+                .item(em.find(Item.class, item.getId()))
+                .booker(user)
+                .status(Status.APPROVED)
+                .build();
+        em.persist(booking);
+        em.flush();
+        em.createQuery("UPDATE Item i SET i.pointersExpireAt = :expireAt WHERE i.id = :id")
+                .setParameter("expireAt", LocalDateTime.now().minusMinutes(1))
+                .setParameter("id", item.getId())
+                .executeUpdate();
+        em.clear();
+
+        assertThat(itemService.findById(owner.getId(), item.getId()).getLastBooking(), nullValue());
+
+        itemBookingPointerService.rollForward();
+
+        ItemDtoSpecified result = itemService.findById(owner.getId(), item.getId());
+        assertThat(result.getLastBooking(), notNullValue());
+        assertThat(result.getLastBooking().getId(), equalTo(booking.getId()));
+        assertThat(em.find(Item.class, item.getId()).getPointersExpireAt(), nullValue());
+    }
+
+    @Test
+    void shouldPageAndStreamItemsOfOwnerInIdOrder() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(itemService.create(owner.getId(), itemDto).getId());
+        }
+        itemService.create(user.getId(), itemDto);
+        createComment(ids.get(3));
+
+        CursorPage<ItemDtoSpecified> first = itemService.findForTheUser(owner.getId(), null, 2);
+        CursorPage<ItemDtoSpecified> second = itemService.findForTheUser(owner.getId(), first.getNextCursor(), 2);
+        CursorPage<ItemDtoSpecified> third = itemService.findForTheUser(owner.getId(), second.getNextCursor(), 2);
+
+        assertThat(first.getItems().stream().map(ItemDtoSpecified::getId).toList(), equalTo(ids.subList(0, 2)));
+        assertThat(second.getItems().stream().map(ItemDtoSpecified::getId).toList(), equalTo(ids.subList(2, 4)));
+        assertThat(second.getItems().get(1).getComments(), hasSize(1));
+        assertThat(third.getItems().stream().map(ItemDtoSpecified::getId).toList(), equalTo(ids.subList(4, 5)));
+        assertThat(third.getNextCursor(), nullValue());
+
+        List<ItemDtoSpecified> streamed = new ArrayList<>();
+        itemService.streamForTheUser(owner.getId(), streamed::add);
+
+        assertThat(streamed.stream().map(ItemDtoSpecified::getId).toList(), equalTo(ids));
+        assertThat(streamed.get(3).getComments(), hasSize(1));
+    }
+
     @Test
     void shouldThrowNotFoundExceptionIfUserNotExists() {
         Long invalidUserId = 0L;
 
-        assertThatThrownBy(() -> itemService.findForTheUser(invalidUserId))
+        assertThatThrownBy(() -> itemService.findForTheUser(invalidUserId, null, 50))
                 .isInstanceOf(NotFoundException.class)
                 .hasMessageContaining("User with id: 0 is not in repository");
     }
@@ -291,15 +437,21 @@ public class ItemServiceTest {
         em.flush();
         em.clear();
 
-        Collection<ItemDtoSpecified> ownerItems = itemService.findForTheUser(owner.getId());
+        Collection<ItemDtoSpecified> ownerItems = itemService.findForTheUser(owner.getId(), null, 50).getItems();
         assertThat(ownerItems, hasSize(1));
         assertThat(ownerItems.iterator().next().getId(), equalTo(ownerItem.getId()));
 
-        Collection<ItemDtoSpecified> userItems = itemService.findForTheUser(user.getId());
+        Collection<ItemDtoSpecified> userItems = itemService.findForTheUser(user.getId(), null, 50).getItems();
         assertThat(userItems, hasSize(1));
         assertThat(userItems.iterator().next().getId(), equalTo(userItem.getId()));
     }
 
+    private long executedRows(Statistics statistics) {
+        return Arrays.stream(statistics.getQueries())
+                .mapToLong(query -> statistics.getQueryStatistics(query).getExecutionRowCount())
+                .sum();
+    }
+
     private void createPastBooking(Long itemId) {
         Booking booking = Booking.builder()
                 .start(LocalDateTime.now().minusDays(2))
@@ -310,6 +462,8 @@ public class ItemServiceTest {
                 .build();
 
         em.persist(booking);
+        itemBookingPointerService.refresh(itemId);
+        itemDetailsLoader.evictBookings(itemId);
     }
 
     private void createFutureBooking(Long itemId) {
@@ -322,6 +476,8 @@ public class ItemServiceTest {
                 .build();
 
         em.persist(booking);
+        itemBookingPointerService.refresh(itemId);
+        itemDetailsLoader.evictBookings(itemId);
     }
 
     private void createComment(Long itemId) {
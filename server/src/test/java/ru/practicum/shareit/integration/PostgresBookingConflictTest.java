@@ -0,0 +1,196 @@
+package ru.practicum.shareit.integration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.BookingDeniedException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.postgres.PostgresTest;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+
+@PostgresTest
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "shareit.booking.period-mode=range")
+public class PostgresBookingConflictTest {
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @SpyBean
+    private BookingRepository bookingRepository;
+
+    private UserDto owner;
+    private UserDto booker;
+    private ItemDto item;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString();
+        owner = userService.create(UserDto.builder().name("Owner").email("owner-" + suffix + "@example.com").build());
+        booker = userService.create(UserDto.builder().name("Booker").email("booker-" + suffix + "@example.com")
+                .build());
+        item = itemService.create(owner.getId(), ItemDto.builder()
+                .name("Item")
+                .description("Booked elsewhere")
+                .available(true)
+                .build());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM bookings WHERE item_id IN (SELECT id FROM items WHERE owner_id = ?)",
+                owner.getId());
+        jdbcTemplate.update("DELETE FROM items WHERE owner_id = ?", owner.getId());
+        jdbcTemplate.update("DELETE FROM users WHERE id IN (?, ?)", owner.getId(), booker.getId());
+    }
+
+    @Test
+    void deniesBookingThatOnlyTheExclusionConstraintCatches() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.MINUTES);
+        LocalDateTime end = start.plusHours(2);
+        insertApprovedBookingAfterTheCheck(start, end);
+
+        BookingDto bookingDto = BookingDto.builder()
+                .itemId(item.getId())
+                .start(start.plusMinutes(30))
+                .end(end)
+                .build();
+
+        assertThrows(BookingDeniedException.class, () -> bookingService.create(booker.getId(), bookingDto));
+        assertEquals(1, countBookings());
+    }
+
+    @Test
+    void rejectsOnlyTheBatchEntriesThatTheExclusionConstraintCatches() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.MINUTES);
+        LocalDateTime end = start.plusHours(2);
+        insertApprovedBookingAfterTheCheck(start, end);
+
+        List<BookingBatchResult> results = bookingService.createAll(booker.getId(), List.of(
+                BookingDto.builder().itemId(item.getId()).start(end.plusHours(1)).end(end.plusHours(2)).build(),
+                BookingDto.builder().itemId(item.getId()).start(start.plusMinutes(30)).end(end).build(),
+                BookingDto.builder().itemId(item.getId()).start(end.plusHours(3)).end(end.plusHours(4)).build()));
+
+        assertEquals(List.of(HttpStatus.CREATED.value(), HttpStatus.BAD_REQUEST.value(), HttpStatus.CREATED.value()),
+                results.stream().map(BookingBatchResult::getStatus).toList());
+        assertNotNull(results.get(0).getBooking().getId());
+        assertNotNull(results.get(2).getBooking().getId());
+        assertEquals(3, countBookings());
+    }
+
+    @Test
+    void locksEveryItemOfTheBatch() {
+        ItemDto other = itemService.create(owner.getId(), ItemDto.builder()
+                .name("Other item")
+                .description("Booked in the same batch")
+                .available(true)
+                .build());
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.MINUTES);
+
+        List<BookingBatchResult> results = bookingService.createAll(booker.getId(), List.of(
+                BookingDto.builder().itemId(other.getId()).start(start).end(start.plusHours(2)).build(),
+                BookingDto.builder().itemId(item.getId()).start(start).end(start.plusHours(2)).build(),
+                BookingDto.builder().itemId(other.getId()).start(start.plusHours(1)).end(start.plusHours(3)).build()));
+
+        assertEquals(List.of(HttpStatus.CREATED.value(), HttpStatus.CREATED.value(), HttpStatus.BAD_REQUEST.value()),
+                results.stream().map(BookingBatchResult::getStatus).toList());
+        assertEquals(1, countBookings());
+    }
+
+    @Test
+    void deniesBookingThatOverlapsOneEndingInAnotherPartition() {
+        LocalDateTime monthEnd = YearMonth.now().plusMonths(1).atEndOfMonth().plusDays(1).atStartOfDay();
+        insertApprovedBooking(monthEnd.minusDays(1), monthEnd.plusDays(1));
+
+        BookingDto bookingDto = BookingDto.builder()
+                .itemId(item.getId())
+                .start(monthEnd.minusDays(2))
+                .end(monthEnd.minusHours(12))
+                .build();
+
+        assertThrows(BookingDeniedException.class, () -> bookingService.create(booker.getId(), bookingDto));
+        assertEquals(1, countBookings());
+    }
+
+    @Test
+    void approvesOnlyTheBatchEntriesStillWaitingWhenTheUpdateRuns() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.MINUTES);
+        List<Long> bookingIds = bookingService.createAll(booker.getId(), List.of(
+                        BookingDto.builder().itemId(item.getId()).start(start).end(start.plusHours(2)).build(),
+                        BookingDto.builder().itemId(item.getId()).start(start.plusMonths(1))
+                                .end(start.plusMonths(1).plusHours(2)).build())).stream()
+                .map(result -> result.getBooking().getId())
+                .toList();
+        List<Booking> bookings = bookingRepository.findAllWithItemAndBookerByIdIn(bookingIds);
+        // Rejected by another node between the read and the update of the batch.
+        doAnswer(invocation -> {
+            CompletableFuture.runAsync(() -> jdbcTemplate.update("UPDATE bookings SET status = 'REJECTED' " +
+                    "WHERE id = ?", bookingIds.get(1))).join();
+            return bookings;
+        }).when(bookingRepository).findAllWithItemAndBookerByIdIn(any());
+
+        List<BookingBatchResult> results = bookingService.updateStatuses(owner.getId(), bookingIds, true);
+
+        assertEquals(List.of(HttpStatus.OK.value(), HttpStatus.CONFLICT.value()),
+                results.stream().map(BookingBatchResult::getStatus).toList());
+        assertEquals(List.of("APPROVED", "REJECTED"), jdbcTemplate.queryForList(
+                "SELECT status FROM bookings WHERE id IN (?, ?) ORDER BY start_date", String.class,
+                bookingIds.get(0), bookingIds.get(1)));
+    }
+
+    // Stands for a booking another node commits between the availability check and the insert.
+    private void insertApprovedBookingAfterTheCheck(LocalDateTime start, LocalDateTime end) {
+        doReturn(false).when(bookingRepository)
+                .existsByItemIdAndStatusInAndStartBeforeAndEndAfter(any(), any(), any(), any());
+        doReturn(List.of()).when(bookingRepository)
+                .findAllByItemIdInAndStatusInAndStartBeforeAndEndAfter(any(), any(), any(), any());
+        insertApprovedBooking(start, end);
+    }
+
+    // Written past the service, as another node would, so only the database knows about the booking.
+    private void insertApprovedBooking(LocalDateTime start, LocalDateTime end) {
+        jdbcTemplate.update("INSERT INTO bookings (start_date, end_date, item_id, booker_id, status) " +
+                        "VALUES (?, ?, ?, ?, 'APPROVED')",
+                Timestamp.valueOf(start), Timestamp.valueOf(end), item.getId(), booker.getId());
+    }
+
+    private int countBookings() {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM bookings WHERE item_id = ?", Integer.class,
+                item.getId());
+    }
+}
@@ -0,0 +1,120 @@
+package ru.practicum.shareit.integration;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.practicum.shareit.booking.lock.ItemBookingLockMode;
+import ru.practicum.shareit.booking.partition.BookingPartitionManager;
+import ru.practicum.shareit.postgres.PostgresDatabases;
+import ru.practicum.shareit.postgres.PostgresTest;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@PostgresTest
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "shareit.booking.period-mode=range")
+public class PostgresBookingPartitionTest {
+    private static final String DATABASE = "shareit_partition_test";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final YearMonth NOW = YearMonth.now();
+    private static final List<YearMonth> LEGACY_MONTHS = List.of(NOW.minusMonths(2), NOW.minusMonths(1),
+            NOW.plusMonths(1), NOW.plusMonths(36));
+
+    @Autowired
+    private BookingPartitionManager bookingPartitionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> PostgresDatabases.url(DATABASE));
+    }
+
+    // Runs before the context starts, so the partition manager finds a database as it was before partitioning.
+    @BeforeAll
+    static void createLegacyDatabase() throws Exception {
+        JdbcTemplate legacy = PostgresDatabases.create(DATABASE, "partition/legacy-schema.sql");
+        legacy.update("INSERT INTO users (name, email) VALUES ('Owner', 'owner@example.com'), " +
+                "('Booker', 'booker@example.com')");
+        legacy.update("INSERT INTO items (name, description, is_available, owner_id) " +
+                "SELECT 'Item', 'Partitioned item', true, id FROM users WHERE name = 'Owner'");
+        for (YearMonth month : LEGACY_MONTHS) {
+            LocalDateTime end = month.atDay(15).atStartOfDay();
+            legacy.update("INSERT INTO bookings (start_date, end_date, item_id, booker_id, status) " +
+                            "SELECT ?, ?, i.id, u.id, 'APPROVED' FROM items i, users u WHERE u.name = 'Booker'",
+                    Timestamp.valueOf(end.minusDays(1)), Timestamp.valueOf(end));
+        }
+    }
+
+    @AfterAll
+    static void dropDatabase() {
+        PostgresDatabases.drop(DATABASE);
+    }
+
+    @Test
+    void migratesLegacyTableIntoMonthlyPartitions() {
+        assertTrue(jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM pg_partitioned_table " +
+                "WHERE partrelid = 'bookings'::regclass)", Boolean.class));
+        assertNull(jdbcTemplate.queryForObject("SELECT to_regclass('bookings_legacy')", String.class));
+
+        for (YearMonth month : LEGACY_MONTHS) {
+            String expected = month.isAfter(NOW.plusMonths(24)) ? "bookings_default" : partition(month);
+            assertEquals(List.of(expected), jdbcTemplate.queryForList("SELECT tableoid::regclass::text " +
+                    "FROM bookings WHERE end_date = ?", String.class, Timestamp.valueOf(month.atDay(15)
+                    .atStartOfDay())));
+        }
+        assertEquals(List.of("ex_bookings_item_period_" + NOW.format(SUFFIX)), jdbcTemplate.queryForList(
+                "SELECT conname FROM pg_constraint WHERE conrelid = ?::regclass AND contype = 'x'", String.class,
+                partition(NOW)));
+    }
+
+    @Test
+    void movesBookingsOfNewPartitionOutOfTheDefaultOne() {
+        YearMonth month = NOW.plusMonths(30);
+        LocalDateTime end = month.atDay(10).atStartOfDay();
+        jdbcTemplate.update("INSERT INTO bookings (start_date, end_date, item_id, booker_id, status) " +
+                        "SELECT ?, ?, i.id, u.id, 'WAITING' FROM items i, users u WHERE u.name = 'Booker'",
+                Timestamp.valueOf(end.minusDays(1)), Timestamp.valueOf(end));
+        assertEquals("bookings_default", partitionOf(end));
+
+        bookingPartitionManager.createPartitions(month, month);
+
+        assertEquals(partition(month), partitionOf(end));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT count(*) FROM bookings WHERE end_date = ?",
+                Integer.class, Timestamp.valueOf(end)));
+        assertTrue(jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM pg_inherits " +
+                "WHERE inhrelid = 'bookings_default'::regclass AND inhparent = 'bookings'::regclass)", Boolean.class));
+    }
+
+    @Test
+    void refusesToPartitionWithoutAdvisoryLocks() {
+        ReflectionTestUtils.setField(bookingPartitionManager, "lockMode", ItemBookingLockMode.STRIPED);
+        try {
+            assertThrows(IllegalStateException.class, () -> bookingPartitionManager.init());
+        } finally {
+            ReflectionTestUtils.setField(bookingPartitionManager, "lockMode", ItemBookingLockMode.ADVISORY);
+        }
+    }
+
+    private String partitionOf(LocalDateTime end) {
+        return jdbcTemplate.queryForObject("SELECT tableoid::regclass::text FROM bookings WHERE end_date = ?",
+                String.class, Timestamp.valueOf(end));
+    }
+
+    private static String partition(YearMonth month) {
+        return "bookings_p" + month.format(SUFFIX);
+    }
+}
@@ -0,0 +1,108 @@
+package ru.practicum.shareit.integration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.dto.BookingResponse;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.budget.QueryCountingDataSource;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.postgres.PostgresTest;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Range mode once selected whole booking rows and loaded item and booker one by one; the reads must stay a single
+// query that returns them joined.
+@PostgresTest
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "shareit.booking.period-mode=range")
+public class PostgresBookingReadTest {
+    private static final int ITEMS = 5;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UserDto owner;
+    private UserDto booker;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString();
+        owner = userService.create(UserDto.builder().name("Owner").email("owner-" + suffix + "@example.com").build());
+        booker = userService.create(UserDto.builder().name("Booker").email("booker-" + suffix + "@example.com")
+                .build());
+
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+        for (int i = 0; i < ITEMS; i++) {
+            ItemDto item = itemService.create(owner.getId(), ItemDto.builder()
+                    .name("Item " + i)
+                    .description("Read in range mode")
+                    .available(true)
+                    .build());
+            insertBooking(item.getId(), now.minusDays(3), now.minusDays(2), "APPROVED");
+            insertBooking(item.getId(), now.minusHours(1), now.plusHours(1), "APPROVED");
+            insertBooking(item.getId(), now.plusDays(2), now.plusDays(3), "WAITING");
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM bookings WHERE item_id IN (SELECT id FROM items WHERE owner_id = ?)",
+                owner.getId());
+        jdbcTemplate.update("DELETE FROM items WHERE owner_id = ?", owner.getId());
+        jdbcTemplate.update("DELETE FROM users WHERE id IN (?, ?)", owner.getId(), booker.getId());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"ALL", "CURRENT", "PAST", "FUTURE", "WAITING"})
+    void readsBookingsWithItemAndBookerInOneQuery(String state) {
+        int expected = state.equals("ALL") ? ITEMS * 3 : ITEMS;
+
+        assertJoined(expected, () -> bookingService.readBookingsForUser(booker.getId(), state, null, 100)
+                .getItems());
+        assertJoined(expected, () -> bookingService.readBookingsForOwner(owner.getId(), state, null, 100)
+                .getItems());
+    }
+
+    private void assertJoined(int expected, Supplier<List<BookingResponse>> read) {
+        long queries = QueryCountingDataSource.count();
+        List<BookingResponse> bookings = read.get();
+
+        assertTrue(QueryCountingDataSource.count() - queries <= 2);
+        assertEquals(expected, bookings.size());
+        for (BookingResponse booking : bookings) {
+            assertTrue(booking.getItem().getName().startsWith("Item "));
+            assertEquals(owner.getId(), booking.getItem().getOwner());
+            assertEquals(booker.getEmail(), booking.getBooker().getEmail());
+        }
+    }
+
+    private void insertBooking(Long itemId, LocalDateTime start, LocalDateTime end, String status) {
+        jdbcTemplate.update("INSERT INTO bookings (start_date, end_date, item_id, booker_id, status) " +
+                "VALUES (?, ?, ?, ?, ?)", Timestamp.valueOf(start), Timestamp.valueOf(end), itemId, booker.getId(),
+                status);
+    }
+}
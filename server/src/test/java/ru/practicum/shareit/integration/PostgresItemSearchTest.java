@@ -0,0 +1,83 @@
+package ru.practicum.shareit.integration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.postgres.PostgresTest;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@PostgresTest
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "shareit.item.search.mode=fulltext")
+public class PostgresItemSearchTest {
+    private static final int MAX_PAGES = 10;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String token;
+    private UserDto owner;
+    private final List<Long> itemIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        token = "t" + UUID.randomUUID().toString().replace("-", "").substring(0, 12);
+        owner = userService.create(UserDto.builder().name("Owner").email("owner-" + token + "@example.com").build());
+
+        itemIds.add(create("Bosch drill " + token));
+        for (int i = 0; i < 4; i++) {
+            itemIds.add(create(token + " Drill Bosch " + i));
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM items WHERE owner_id = ?", owner.getId());
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", owner.getId());
+    }
+
+    // Items matching the words in another order are no substring match, yet the cursor must still move past them.
+    @Test
+    void pagesThroughItemsMatchingWordsInAnotherOrder() {
+        List<Long> found = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPage<ItemDto> page = itemService.search("bosch drill " + token, cursor, 2);
+            page.getItems().forEach(item -> found.add(item.getId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null && pages < MAX_PAGES);
+
+        assertNull(cursor);
+        assertEquals(3, pages);
+        assertEquals(itemIds, found);
+    }
+
+    private Long create(String name) {
+        return itemService.create(owner.getId(), ItemDto.builder()
+                .name(name)
+                .description("Found by full-text search")
+                .available(true)
+                .build()).getId();
+    }
+}
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.integration;
+
+import org.junit.jupiter.api.AfterAll;
+import org.springframework.jdbc.core.ConnectionCallback;
+import ru.practicum.shareit.postgres.PostgresTest;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+@PostgresTest
+public class PostgresRepositoryQueryPlanTest extends RepositoryQueryPlanTest {
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM comments WHERE text LIKE 'Comment %'");
+        jdbcTemplate.update("DELETE FROM bookings WHERE booker_id IN (SELECT id FROM users " +
+                "WHERE email LIKE 'plan-%@email.com')");
+        jdbcTemplate.update("DELETE FROM items WHERE owner_id IN (SELECT id FROM users " +
+                "WHERE email LIKE 'plan-%@email.com')");
+        jdbcTemplate.update("DELETE FROM requests WHERE requester_id IN (SELECT id FROM users " +
+                "WHERE email LIKE 'plan-%@email.com')");
+        jdbcTemplate.update("DELETE FROM users WHERE email LIKE 'plan-%@email.com'");
+    }
+
+    // With sequential scans priced out, a plan still holds one only when no index can serve the query, which keeps
+    // the check independent of how small the seeded tables are.
+    @Override
+    protected String explain(RecordedStatement statement) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (Statement settings = connection.createStatement()) {
+                settings.execute("SET enable_seqscan = off");
+            }
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + statement.sql())) {
+                statement.bind(explain);
+                List<String> plan = new ArrayList<>();
+                try (ResultSet resultSet = explain.executeQuery()) {
+                    while (resultSet.next()) {
+                        plan.add(resultSet.getString(1));
+                    }
+                }
+                return String.join("\n", plan);
+            } finally {
+                try (Statement settings = connection.createStatement()) {
+                    settings.execute("RESET enable_seqscan");
+                }
+            }
+        });
+    }
+
+    @Override
+    protected boolean hasTableScan(String plan) {
+        return plan.contains("Seq Scan");
+    }
+}
@@ -0,0 +1,84 @@
+package ru.practicum.shareit.integration;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoSpecified;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.postgres.PostgresDatabases;
+import ru.practicum.shareit.postgres.PostgresTest;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Starts on a database created by the schema the project began with, which keeps every table that schema.sql finds
+// already there, so each later column has to be added to it.
+@PostgresTest
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {"shareit.item.search.mode=fulltext", "shareit.booking.period-mode=range"})
+public class PostgresSchemaUpgradeTest {
+    private static final String DATABASE = "shareit_upgrade_test";
+    private static final LocalDateTime NOW = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> PostgresDatabases.url(DATABASE));
+    }
+
+    // Runs before the context starts, so schema.sql is applied to the baseline tables.
+    @BeforeAll
+    static void createBaselineDatabase() throws Exception {
+        JdbcTemplate baseline = PostgresDatabases.create(DATABASE, "upgrade/baseline-schema.sql");
+        baseline.update("INSERT INTO users (name, email) VALUES ('Owner', 'owner@example.com'), " +
+                "('Booker', 'booker@example.com')");
+        baseline.update("INSERT INTO items (name, description, is_available, owner_id) " +
+                "SELECT 'Drill Bosch', 'Cordless drill', true, id FROM users WHERE name = 'Owner'");
+        insertApprovedBooking(baseline, NOW.minusDays(3), NOW.minusDays(2));
+        insertApprovedBooking(baseline, NOW.plusDays(2), NOW.plusDays(3));
+    }
+
+    @AfterAll
+    static void dropDatabase() {
+        PostgresDatabases.drop(DATABASE);
+    }
+
+    @Test
+    void searchesItemsThatWereThereBeforeTheUpgrade() {
+        assertEquals(List.of("Drill Bosch"), itemService.search("bosch drill", null, 10).getItems().stream()
+                .map(ItemDto::getName)
+                .toList());
+    }
+
+    @Test
+    void fillsInBookingPointersOfItemsThatWereThereBeforeTheUpgrade() {
+        Long ownerId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE name = 'Owner'", Long.class);
+        Long itemId = jdbcTemplate.queryForObject("SELECT id FROM items WHERE owner_id = ?", Long.class, ownerId);
+
+        ItemDtoSpecified item = itemService.findById(ownerId, itemId);
+
+        assertEquals(NOW.minusDays(2), item.getLastBooking().getEnd());
+        assertEquals(NOW.plusDays(2), item.getNextBooking().getStart());
+    }
+
+    private static void insertApprovedBooking(JdbcTemplate baseline, LocalDateTime start, LocalDateTime end) {
+        baseline.update("INSERT INTO bookings (start_date, end_date, item_id, booker_id, status) " +
+                        "SELECT ?, ?, i.id, u.id, 'APPROVED' FROM items i, users u WHERE u.name = 'Booker'",
+                Timestamp.valueOf(start), Timestamp.valueOf(end));
+    }
+}
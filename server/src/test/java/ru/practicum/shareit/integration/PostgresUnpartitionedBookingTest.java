@@ -0,0 +1,82 @@
+package ru.practicum.shareit.integration;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingResponse;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.postgres.PostgresDatabases;
+import ru.practicum.shareit.postgres.PostgresTest;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// schema.sql always creates bookings partitioned, so with the partition manager off a fresh database must still
+// have somewhere to put them.
+@PostgresTest
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@TestPropertySource(properties = {"shareit.booking.partitions.enabled=false", "shareit.booking.lock.mode=striped"})
+public class PostgresUnpartitionedBookingTest {
+    private static final String DATABASE = "shareit_unpartitioned_test";
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> PostgresDatabases.url(DATABASE));
+    }
+
+    @BeforeAll
+    static void createDatabase() {
+        PostgresDatabases.create(DATABASE);
+    }
+
+    @AfterAll
+    static void dropDatabase() {
+        PostgresDatabases.drop(DATABASE);
+    }
+
+    @Test
+    void keepsBookingsInTheDefaultPartition() {
+        UserDto owner = userService.create(UserDto.builder().name("Owner").email("owner@example.com").build());
+        UserDto booker = userService.create(UserDto.builder().name("Booker").email("booker@example.com").build());
+        ItemDto item = itemService.create(owner.getId(), ItemDto.builder()
+                .name("Item")
+                .description("Booked without partitions")
+                .available(true)
+                .build());
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.MINUTES);
+        BookingDto bookingDto = BookingDto.builder().itemId(item.getId()).start(start).end(start.plusHours(2)).build();
+
+        BookingResponse booking = bookingService.create(booker.getId(), bookingDto);
+
+        assertEquals("bookings_default", jdbcTemplate.queryForObject("SELECT tableoid::regclass::text " +
+                "FROM bookings WHERE id = ?", String.class, booking.getId()));
+        assertEquals(List.of("ex_bookings_item_period_default"), jdbcTemplate.queryForList("SELECT conname " +
+                "FROM pg_constraint WHERE conrelid = 'bookings_default'::regclass AND contype = 'x'", String.class));
+    }
+}
@@ -0,0 +1,183 @@
+package ru.practicum.shareit.integration;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.budget.QueryCountingDataSource;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingResponse;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoSpecified;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Transactional
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+public class QueryBudgetTest {
+    private static final int SIZE = 25;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private ItemRequestService itemRequestService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    private UserDto owner;
+    private UserDto booker;
+    private List<ItemDto> items;
+    private List<Long> bookingIds;
+
+    @BeforeEach
+    void setUp() {
+        owner = userService.create(UserDto.builder().name("Owner").email("budget-owner@example.com").build());
+        booker = userService.create(UserDto.builder().name("Booker").email("budget-booker@example.com").build());
+
+        items = new ArrayList<>();
+        for (int i = 0; i < SIZE; i++) {
+            ItemRequestDto request = itemRequestService.create(booker.getId(), ItemRequestDto.builder()
+                    .description("Request " + i)
+                    .build());
+            for (int j = 0; j < 2; j++) {
+                items.add(itemService.create(owner.getId(), ItemDto.builder()
+                        .name("Drill " + i + "-" + j)
+                        .description("Budget drill")
+                        .available(true)
+                        .requestId(request.getId())
+                        .build()));
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        bookingIds = new ArrayList<>();
+        List<BookingDto> bookingDtos = new ArrayList<>();
+        for (ItemDto item : items) {
+            bookingIds.add(bookingService.create(booker.getId(), BookingDto.builder()
+                    .itemId(item.getId())
+                    .start(now.minusDays(3))
+                    .end(now.minusDays(2))
+                    .build()).getId());
+            bookingDtos.add(BookingDto.builder()
+                    .itemId(item.getId())
+                    .start(now.plusDays(2))
+                    .end(now.plusDays(3))
+                    .build());
+        }
+        bookingService.createAll(booker.getId(), bookingDtos).stream()
+                .map(BookingBatchResult::getBooking)
+                .map(BookingResponse::getId)
+                .forEach(bookingIds::add);
+        bookingService.updateStatuses(owner.getId(), bookingIds, true);
+
+        for (ItemDto item : items) {
+            itemService.createComment(booker.getId(), item.getId(), CommentDto.builder().text("Good drill").build());
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void countsQueriesOfEveryDataAccessPath() {
+        long queries = QueryCountingDataSource.count();
+        long writes = QueryCountingDataSource.writes();
+
+        entityManager.createQuery("select count(u) from User u").getSingleResult();
+        jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class);
+        namedParameterJdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE id = :id",
+                Map.of("id", owner.getId()), Long.class);
+        jdbcTemplate.update("UPDATE users SET name = name WHERE id = ?", owner.getId());
+
+        assertEquals(queries + 3, QueryCountingDataSource.count());
+        assertEquals(writes + 1, QueryCountingDataSource.writes());
+    }
+
+    @Test
+    void readsCollectionsWithinBudgets() {
+        assertTrue(itemRequestService.readAllByOtherUsers(owner.getId()).stream()
+                .allMatch(request -> request.getItems().size() == 2));
+        assertEquals(SIZE * 2, itemService.findForTheUser(owner.getId(), null, 100).getItems().size());
+        List<ItemDtoSpecified> streamed = new ArrayList<>();
+        itemService.streamForTheUser(owner.getId(), streamed::add);
+        assertEquals(SIZE * 2, streamed.size());
+        assertEquals(SIZE * 2, itemService.search("budget", null, 100).getItems().size());
+        assertTrue(itemService.findById(owner.getId(), items.getFirst().getId()).getComments().size() > 0);
+        assertFalse(itemService.findAvailability(items.getFirst().getId(), LocalDateTime.now(),
+                LocalDateTime.now().plusDays(7)).isEmpty());
+
+        assertEquals(SIZE * 4, bookingService.readBookingsForOwner(owner.getId(), "ALL", null, 100).getItems()
+                .size());
+        assertEquals(SIZE * 4, bookingService.readBookingsForUser(booker.getId(), "ALL", null, 100).getItems()
+                .size());
+        assertEquals(SIZE * 4, bookingService.readStatsForOwner(owner.getId()).getAll());
+        assertEquals(SIZE * 4, bookingService.readStatsForUser(booker.getId()).getAll());
+        assertEquals(bookingIds.getFirst(), bookingService.findById(booker.getId(), bookingIds.getFirst()).getId());
+
+        List<ItemRequestDto> requests = itemRequestService.readAllByUser(booker.getId());
+        assertEquals(SIZE, requests.size());
+        assertEquals(2, itemRequestService.readTheItemRequest(requests.getFirst().getId()).getItems().size());
+
+        assertTrue(userService.findAll(null, 100).getItems().size() >= 2);
+        List<UserDto> users = new ArrayList<>();
+        userService.streamAll(users::add);
+        assertTrue(users.size() >= 2);
+    }
+
+    @Test
+    void updatesWithinBudgets() {
+        userService.update(owner.getId(), UserDto.builder().name("Renamed owner").build());
+        itemService.update(owner.getId(), items.getFirst().getId(), ItemDto.builder().name("Renamed drill").build());
+        assertEquals(bookingIds.size(), bookingService.updateStatuses(owner.getId(), bookingIds, false).size());
+
+        LocalDateTime start = LocalDateTime.now().plusDays(10);
+        BookingResponse booking = bookingService.create(booker.getId(), BookingDto.builder()
+                .itemId(items.getLast().getId())
+                .start(start)
+                .end(start.plusDays(1))
+                .build());
+        bookingService.updateStatus(owner.getId(), booking.getId(), false);
+
+        UserDto other = userService.create(UserDto.builder().name("Other").email("budget-other@example.com").build());
+        ItemDto item = itemService.create(other.getId(), ItemDto.builder()
+                .name("Saw")
+                .description("Saw to delete")
+                .available(true)
+                .build());
+        itemService.deleteById(item.getId());
+        userService.deleteById(other.getId());
+    }
+}
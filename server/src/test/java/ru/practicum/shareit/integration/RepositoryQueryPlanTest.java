@@ -0,0 +1,310 @@
+package ru.practicum.shareit.integration;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingQuery;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.lang.reflect.Method;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.practicum.shareit.booking.availability.BookingAvailabilityIndex.BLOCKING_STATUSES;
+import static ru.practicum.shareit.jdbc.JdbcProxies.interceptConnections;
+import static ru.practicum.shareit.jdbc.JdbcProxies.proxy;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@Import(RepositoryQueryPlanTest.StatementRecorder.class)
+public class RepositoryQueryPlanTest {
+    private static final LocalDateTime ORIGIN = LocalDateTime.of(2030, 1, 1, 0, 0);
+    private static final int USERS = 200;
+    private static final int ITEMS = 1_000;
+    private static final int BOOKINGS = 10_000;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    private Long userId;
+    private Long itemId;
+    private Long requestId;
+
+    @BeforeAll
+    void seed() {
+        Random random = new Random(7);
+        List<User> users = new ArrayList<>();
+        List<Item> items = new ArrayList<>();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < USERS; i++) {
+                User user = User.builder().name("User " + i).email("plan-" + i + "@email.com").build();
+                em.persist(user);
+                users.add(user);
+            }
+
+            List<ItemRequest> requests = new ArrayList<>();
+            for (int i = 0; i < USERS; i++) {
+                ItemRequest request = ItemRequest.builder()
+                        .description("Request " + i)
+                        .requester(users.get(i))
+                        .created(ORIGIN.minusDays(i))
+                        .build();
+                em.persist(request);
+                requests.add(request);
+            }
+
+            for (int i = 0; i < ITEMS; i++) {
+                Item item = Item.builder()
+                        .name("Item " + i)
+                        .description("Description " + i)
+                        .available(true)
+                        .owner(users.get(i % USERS))
+                        .request(i % 10 == 0 ? requests.get(i % USERS) : null)
+                        .pointersExpireAt(ORIGIN.plusHours(i))
+                        .build();
+                em.persist(item);
+                items.add(item);
+            }
+
+            Status[] statuses = Status.values();
+            LocalDateTime[] itemEnds = new LocalDateTime[ITEMS];
+            for (int i = 0; i < BOOKINGS; i++) {
+                int item = random.nextInt(ITEMS);
+                LocalDateTime start = (itemEnds[item] == null ? ORIGIN : itemEnds[item])
+                        .plusHours(random.nextInt(24 * 365 * ITEMS / BOOKINGS));
+                itemEnds[item] = start.plusHours(1 + random.nextInt(48));
+                em.persist(Booking.builder()
+                        .start(start)
+                        .end(itemEnds[item])
+                        .item(items.get(item))
+                        .booker(users.get(random.nextInt(USERS)))
+                        .status(statuses[random.nextInt(statuses.length)])
+                        .build());
+            }
+
+            for (int i = 0; i < ITEMS; i++) {
+                em.persist(Comment.builder()
+                        .text("Comment " + i)
+                        .item(items.get(i))
+                        .author(users.get(random.nextInt(USERS)))
+                        .created(ORIGIN)
+                        .build());
+            }
+        });
+        jdbcTemplate.execute("ANALYZE");
+
+        userId = users.get(USERS / 2).getId();
+        itemId = items.get(ITEMS / 2).getId();
+        requestId = items.get(ITEMS / 2).getRequest().getId();
+    }
+
+    @Test
+    void bookingAvailabilityQueriesUseIndexes() {
+        assertNoTableScans(() -> bookingRepository.findAllByStatusInAndEndAfter(BLOCKING_STATUSES, ORIGIN));
+        assertNoTableScans(() -> bookingRepository.findAllByItemIdAndStatusInAndEndAfter(itemId,
+                BLOCKING_STATUSES, ORIGIN));
+        assertNoTableScans(() -> bookingRepository.findAllByItemIdAndStatusInAndStartBeforeAndEndAfterOrderByStartAsc(
+                itemId, BLOCKING_STATUSES, ORIGIN.plusDays(7), ORIGIN));
+        assertNoTableScans(() -> bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(itemId,
+                BLOCKING_STATUSES, ORIGIN.plusDays(1), ORIGIN));
+        assertNoTableScans(() -> bookingRepository.findAllByItemIdInAndStatusInAndStartBeforeAndEndAfter(
+                List.of(itemId, itemId + 1), BLOCKING_STATUSES, ORIGIN.plusDays(1), ORIGIN));
+    }
+
+    @Test
+    void bookingExpiryQueriesUseIndexes() {
+        assertNoTableScans(() -> bookingRepository.findIdsByStatusAndStartBefore(Status.WAITING, ORIGIN,
+                Limit.of(500)));
+    }
+
+    @Test
+    void bookingListQueriesUseIndexes() {
+        for (BookingRole role : BookingRole.values()) {
+            for (BookingState state : BookingState.values()) {
+                assertNoTableScans(BookingQuery.builder()
+                        .userId(userId)
+                        .role(role)
+                        .state(state)
+                        .now(ORIGIN)
+                        .limit(51)
+                        .build());
+                assertNoTableScans(BookingQuery.builder()
+                        .userId(userId)
+                        .role(role)
+                        .state(state)
+                        .now(ORIGIN)
+                        .afterStart(ORIGIN.plusDays(100))
+                        .afterId(Long.MAX_VALUE)
+                        .limit(51)
+                        .build());
+            }
+        }
+
+        assertNoTableScans(BookingQuery.builder()
+                .userId(userId)
+                .role(BookingRole.OWNER)
+                .itemId(itemId)
+                .from(ORIGIN)
+                .to(ORIGIN.plusDays(30))
+                .limit(51)
+                .build());
+    }
+
+    @Test
+    void itemBookingPointerQueriesUseIndexes() {
+        assertNoTableScans(() -> bookingRepository.findTopBookingByItemIdAndStatusNotAndStartBeforeOrderByEndDesc(
+                itemId, Status.REJECTED, ORIGIN));
+        assertNoTableScans(() -> bookingRepository.findTopBookingByItemIdAndStatusNotAndStartAfterOrderByStartAsc(
+                itemId, Status.REJECTED, ORIGIN));
+        assertNoTableScans(() -> bookingRepository.findFirstByItemIdAndStatusNotAndEndBeforeOrderByEndDesc(itemId,
+                Status.REJECTED, ORIGIN));
+        assertNoTableScans(() -> bookingRepository
+                .findFirstByItemIdAndStatusNotAndStartLessThanEqualAndEndAfterOrderByEndAsc(itemId, Status.REJECTED,
+                        ORIGIN, ORIGIN));
+        List<Long> itemIds = List.of(itemId, itemId + 1);
+        assertNoTableScans(() -> bookingRepository.findLastBookingsOfItems(itemIds, Status.REJECTED, ORIGIN));
+        assertNoTableScans(() -> bookingRepository.findNextBookingsOfItems(itemIds, Status.REJECTED, ORIGIN));
+        assertNoTableScans(() -> bookingRepository.findCurrentBookingsOfItems(itemIds, Status.REJECTED, ORIGIN));
+    }
+
+    @Test
+    void itemQueriesUseIndexes() {
+        assertNoTableScans(() -> itemRepository.findAllByOwnerIdWithBookings(userId, 0, Limit.of(51)));
+        assertNoTableScans(() -> transactionTemplate.executeWithoutResult(status -> {
+            try (var items = itemRepository.streamAllByOwnerIdWithBookings(userId)) {
+                items.forEach(item -> {
+                });
+            }
+        }));
+        assertNoTableScans(() -> itemRepository.findByIdWithBookings(itemId));
+        assertNoTableScans(() -> itemRepository.findItemByRequestId(requestId));
+        assertNoTableScans(() -> itemRepository.findIdsWithExpiredBookingPointers(ORIGIN, Limit.of(500)));
+        assertNoTableScans(() -> itemRepository.findAllWithOwnerByIdIn(List.of(itemId, itemId + 1)));
+        assertNoTableScans(() -> commentRepository.findAllByItemIdIn(List.of(itemId, itemId + 1)));
+        assertNoTableScans(() -> itemRequestRepository.findByRequesterIdWithItems(userId));
+        assertNoTableScans(() -> itemRequestRepository.findByRequesterIdNotWithItems(userId));
+    }
+
+    private void assertNoTableScans(BookingQuery query) {
+        assertNoTableScans(() -> namedParameterJdbcTemplate.query(query.toSql(), query.toParameters(),
+                resultSet -> {
+                }));
+    }
+
+    private void assertNoTableScans(Runnable query) {
+        StatementRecorder.STATEMENTS.clear();
+        query.run();
+        List<RecordedStatement> statements = List.copyOf(StatementRecorder.STATEMENTS);
+        assertFalse(statements.isEmpty(), "No statements were recorded");
+
+        for (RecordedStatement statement : statements) {
+            String plan = explain(statement);
+            assertFalse(hasTableScan(plan), () -> "Sequential scan in plan of " + statement.sql() + ":\n" + plan);
+        }
+    }
+
+    // Binds the values the repository bound itself, so the plan is the one its call actually gets.
+    protected String explain(RecordedStatement statement) {
+        return String.join("\n", jdbcTemplate.query("EXPLAIN " + statement.sql(), statement::bind,
+                (resultSet, rowNum) -> resultSet.getString(1)));
+    }
+
+    protected boolean hasTableScan(String plan) {
+        return plan.contains("tableScan");
+    }
+
+    protected record RecordedStatement(String sql, List<Object[]> bindings) {
+
+        void bind(PreparedStatement statement) throws SQLException {
+            for (Object[] binding : bindings) {
+                try {
+                    PreparedStatement.class.getMethod((String) binding[0], (Class<?>[]) binding[1])
+                            .invoke(statement, (Object[]) binding[2]);
+                } catch (ReflectiveOperationException e) {
+                    throw new SQLException("Unable to bind " + binding[0], e);
+                }
+            }
+        }
+    }
+
+    @TestConfiguration
+    static class StatementRecorder {
+        static final List<RecordedStatement> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Bean
+        static BeanPostProcessor statementRecordingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return interceptConnections(bean, StatementRecorder::record);
+                }
+            };
+        }
+
+        private static Object record(Method method, Object[] args, Object result) {
+            if (!(result instanceof PreparedStatement statement) || !method.getName().equals("prepareStatement")) {
+                return result;
+            }
+
+            RecordedStatement recorded = new RecordedStatement((String) args[0], new CopyOnWriteArrayList<>());
+            STATEMENTS.add(recorded);
+            return proxy(PreparedStatement.class, statement, (called, calledArgs, calledResult) -> {
+                if (called.getName().startsWith("set") && calledArgs != null && calledArgs.length > 1
+                        && calledArgs[0] instanceof Integer) {
+                    recorded.bindings().add(new Object[]{called.getName(), called.getParameterTypes(), calledArgs});
+                }
+                return calledResult;
+            });
+        }
+    }
+}
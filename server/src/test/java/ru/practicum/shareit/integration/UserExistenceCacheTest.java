@@ -0,0 +1,82 @@
+package ru.practicum.shareit.integration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.budget.QueryCountingDataSource;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserExistenceCache;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+public class UserExistenceCacheTest {
+
+    @Autowired
+    private UserExistenceCache userExistenceCache;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void answersFromCacheWithoutQueries() {
+        UserDto user = userService.create(UserDto.builder()
+                .name("Cached")
+                .email("cached-" + UUID.randomUUID() + "@example.com")
+                .build());
+
+        long queries = QueryCountingDataSource.count();
+        assertTrue(userExistenceCache.exists(user.getId()));
+        assertEquals(queries, QueryCountingDataSource.count());
+
+        assertFalse(userExistenceCache.exists(Long.MAX_VALUE - user.getId()));
+        assertFalse(userExistenceCache.exists(Long.MAX_VALUE - user.getId()));
+        assertEquals(queries + 1, QueryCountingDataSource.count());
+
+        userService.deleteById(user.getId());
+
+        assertFalse(userExistenceCache.exists(user.getId()));
+        assertThrows(NotFoundException.class, () -> userService.deleteById(user.getId()));
+    }
+
+    @Test
+    void findsUsersSavedPastTheService() {
+        long id = 1_000_000_000L + new Random().nextInt(1_000_000);
+        jdbcTemplate.update("INSERT INTO users (id, name, email) VALUES (?, 'Imported', ?)", id,
+                "imported-" + UUID.randomUUID() + "@example.com");
+        try {
+            assertTrue(userExistenceCache.exists(id));
+
+            long queries = QueryCountingDataSource.count();
+            assertTrue(userExistenceCache.exists(id));
+            assertEquals(queries, QueryCountingDataSource.count());
+        } finally {
+            jdbcTemplate.update("DELETE FROM users WHERE id = ?", id);
+        }
+    }
+
+    @Test
+    void forgetsMissingUsersOnceTheyAreRegistered() {
+        long id = 1_000_000_000L + new Random().nextInt(1_000_000);
+        assertFalse(userExistenceCache.exists(id));
+
+        jdbcTemplate.update("INSERT INTO users (id, name, email) VALUES (?, 'Imported', ?)", id,
+                "imported-" + UUID.randomUUID() + "@example.com");
+        try {
+            userExistenceCache.register(id);
+
+            assertTrue(userExistenceCache.exists(id));
+        } finally {
+            jdbcTemplate.update("DELETE FROM users WHERE id = ?", id);
+        }
+    }
+}
@@ -8,12 +8,16 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.PaginationException;
 import ru.practicum.shareit.exception.UserEmailNotUniqueException;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -63,7 +67,7 @@ public class UserServiceTest {
 
     @Test
     public void shouldReturnEmptyListWhenNoUsers() {
-        Collection<UserDto> result = userService.findAll();
+        Collection<UserDto> result = userService.findAll(null, 10).getItems();
 
         assertTrue(result.isEmpty());
     }
@@ -74,7 +78,7 @@ public class UserServiceTest {
         userService.create(userDto);
         UserDto savedSecondUser = userService.create(userDtoSecond);
 
-        Collection<UserDto> result = userService.findAll();
+        Collection<UserDto> result = userService.findAll(null, 10).getItems();
 
         assertEquals(2, result.size());
         assertTrue(result.stream().anyMatch(userDto -> userDto.getId().equals(savedSecondUser.getId())));
@@ -129,7 +133,7 @@ public class UserServiceTest {
 
         userService.deleteById(userDtoSaved.getId());
 
-        assertTrue(userService.findAll().isEmpty());
+        assertTrue(userService.findAll(null, 10).getItems().isEmpty());
     }
 
     @Test
@@ -147,8 +151,32 @@ public class UserServiceTest {
 
         userService.deleteById(userDtoForDelete.getId());
 
-        Collection<UserDto> usersAfterDelete = userService.findAll();
+        Collection<UserDto> usersAfterDelete = userService.findAll(null, 10).getItems();
         assertEquals(1, usersAfterDelete.size());
         assertTrue(usersAfterDelete.contains(savedAnotherUser));
     }
+
+    @Test
+    void shouldPageAndStreamUsersInIdOrder() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(userService.create(UserDto.builder().name("user" + i).email("user" + i + "@email.com").build())
+                    .getId());
+        }
+
+        CursorPage<UserDto> first = userService.findAll(null, 2);
+        CursorPage<UserDto> second = userService.findAll(first.getNextCursor(), 2);
+        CursorPage<UserDto> third = userService.findAll(second.getNextCursor(), 2);
+
+        assertEquals(ids.subList(0, 2), first.getItems().stream().map(UserDto::getId).toList());
+        assertEquals(ids.subList(2, 4), second.getItems().stream().map(UserDto::getId).toList());
+        assertEquals(ids.subList(4, 5), third.getItems().stream().map(UserDto::getId).toList());
+        assertNull(third.getNextCursor());
+        assertThrows(PaginationException.class, () -> userService.findAll("not a cursor", 2));
+
+        List<UserDto> streamed = new ArrayList<>();
+        userService.streamAll(streamed::add);
+
+        assertEquals(ids, streamed.stream().map(UserDto::getId).toList());
+    }
 }
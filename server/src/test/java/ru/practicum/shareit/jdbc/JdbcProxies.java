@@ -0,0 +1,45 @@
+package ru.practicum.shareit.jdbc;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+
+/**
+ * JDK proxies for the JDBC interfaces, which let tests see every statement that reaches the connection pool.
+ */
+public final class JdbcProxies {
+
+    private JdbcProxies() {
+    }
+
+    /**
+     * Wraps a data source bean so that calls on the connections it hands out pass through the interceptor. Beans of
+     * other types are returned as they are.
+     */
+    public static Object interceptConnections(Object bean, Interceptor interceptor) {
+        return bean instanceof DataSource dataSource ? proxy(DataSource.class, dataSource, (method, args, result) ->
+                result instanceof Connection connection ? proxy(Connection.class, connection, interceptor) : result)
+                : bean;
+    }
+
+    public static <T> T proxy(Class<T> type, T target, Interceptor interceptor) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    try {
+                        return interceptor.after(method, args, method.invoke(target, args));
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                }));
+    }
+
+    /**
+     * Sees a call after it has been made and returns what the caller gets instead of its result.
+     */
+    @FunctionalInterface
+    public interface Interceptor {
+        Object after(Method method, Object[] args, Object result) throws Throwable;
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.postgres;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Throwaway databases for tests that start from a schema of their own. They live next to the one
+ * {@code benchmark.postgres.url} points to.
+ */
+public final class PostgresDatabases {
+    private PostgresDatabases() {
+    }
+
+    public static String url(String database) {
+        String url = System.getProperty("benchmark.postgres.url");
+        int query = url.indexOf('?');
+        String path = query < 0 ? url : url.substring(0, query);
+        return path.substring(0, path.lastIndexOf('/') + 1) + database + (query < 0 ? "" : url.substring(query));
+    }
+
+    public static JdbcTemplate create(String database) {
+        drop(database);
+        server().execute("CREATE DATABASE " + database);
+        return new JdbcTemplate(dataSource(url(database)));
+    }
+
+    public static JdbcTemplate create(String database, String script) throws SQLException {
+        JdbcTemplate jdbcTemplate = create(database);
+        try (Connection connection = jdbcTemplate.getDataSource().getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource(script));
+        }
+        return jdbcTemplate;
+    }
+
+    public static void drop(String database) {
+        server().execute("DROP DATABASE IF EXISTS " + database + " WITH (FORCE)");
+    }
+
+    private static JdbcTemplate server() {
+        return new JdbcTemplate(dataSource(System.getProperty("benchmark.postgres.url")));
+    }
+
+    private static DriverManagerDataSource dataSource(String url) {
+        return new DriverManagerDataSource(url, System.getProperty("benchmark.postgres.username", "postgres"),
+                System.getProperty("benchmark.postgres.password", ""));
+    }
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.postgres;
+
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.test.context.TestPropertySource;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs the test against the Postgres database given by the {@code benchmark.postgres.url} system property and skips
+ * it when none is given. Booking partitions and advisory locks are on, as in production; anything else is set by the
+ * test itself. A test that changes one of these properties declares them in its own {@link TestPropertySource}, which
+ * takes precedence over this one.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@EnabledIfSystemProperty(named = "benchmark.postgres.url", matches = ".+")
+@TestPropertySource(properties = {
+        "spring.datasource.url=${benchmark.postgres.url}",
+        "spring.datasource.username=${benchmark.postgres.username:postgres}",
+        "spring.datasource.password=${benchmark.postgres.password:}",
+        "spring.datasource.driver-class-name=org.postgresql.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.show-sql=false",
+        "spring.sql.init.mode=always",
+        "shareit.booking.partitions.enabled=true",
+        "shareit.booking.lock.mode=advisory"})
+public @interface PostgresTest {
+}
@@ -0,0 +1,43 @@
+-- Compares substring and full-text item search on a seeded dataset.
+-- Run against an empty database initialised with schema.sql:
+--   psql -d shareit -f item-search.sql
+
+INSERT INTO users(name, email)
+SELECT 'user ' || g, 'user' || g || '@bench.local'
+FROM generate_series(1, 10000) g;
+
+INSERT INTO items(name, description, is_available, owner_id)
+SELECT (ARRAY['Drill', 'Saw', 'Hammer', 'Ladder', 'Tent', 'Bicycle', 'Kayak', 'Projector'])[1 + g % 8] || ' ' || g,
+       (ARRAY['cordless', 'heavy duty', 'compact', 'folding', 'electric', 'vintage'])[1 + g % 6] ||
+       ' item number ' || md5(g::text),
+       g % 10 <> 0,
+       1 + g % 10000
+FROM generate_series(1, 2000000) g;
+
+ANALYZE users;
+ANALYZE items;
+
+\timing on
+
+-- substring mode, served by the trigram indexes
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT i.* FROM items i
+WHERE i.is_available = true
+  AND (upper(i.name) LIKE upper('%kayak%') OR upper(i.description) LIKE upper('%kayak%'));
+
+-- full-text mode, served by the tsvector index
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT i.* FROM items i
+WHERE i.is_available = true
+  AND i.search_vector @@ to_tsquery('simple', 'kayak:*')
+ORDER BY ts_rank(i.search_vector, to_tsquery('simple', 'kayak:*')) DESC, i.id;
+
+-- substring mode before the indexes existed
+SET enable_bitmapscan = off;
+SET enable_indexscan = off;
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT i.* FROM items i
+WHERE i.is_available = true
+  AND (upper(i.name) LIKE upper('%kayak%') OR upper(i.description) LIKE upper('%kayak%'));
+RESET enable_bitmapscan;
+RESET enable_indexscan;
@@ -0,0 +1,108 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS users(
+    id BIGINT DEFAULT nextval('users_seq') PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    CONSTRAINT UQ_USER_EMAIL UNIQUE (email)
+);
+
+CREATE SEQUENCE IF NOT EXISTS requests_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS requests(
+    id BIGINT DEFAULT nextval('requests_seq') PRIMARY KEY,
+    description VARCHAR(255) NOT NULL,
+    requester_id BIGINT REFERENCES users(id),
+    created TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS IX_REQUESTS_REQUESTER_CREATED ON requests (requester_id, created DESC);
+CREATE INDEX IF NOT EXISTS IX_REQUESTS_CREATED ON requests (created DESC);
+
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS items(
+    id BIGINT DEFAULT nextval('items_seq') PRIMARY KEY,
+    name VARCHAR(50) NOT NULL,
+    description VARCHAR(255) NOT NULL,
+    is_available BOOLEAN NOT NULL,
+    owner_id BIGINT REFERENCES users(id) NOT NULL,
+    request_id BIGINT REFERENCES requests(id),
+    last_booking_id BIGINT,
+    next_booking_id BIGINT,
+    pointers_expire_at TIMESTAMP WITH TIME ZONE,
+    search_vector TSVECTOR GENERATED ALWAYS AS (to_tsvector('simple', name || ' ' || description)) STORED
+);
+
+CREATE INDEX IF NOT EXISTS IX_ITEMS_SEARCH_VECTOR ON items USING GIN (search_vector);
+CREATE INDEX IF NOT EXISTS IX_ITEMS_NAME_TRGM ON items USING GIN (upper(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS IX_ITEMS_DESCRIPTION_TRGM ON items USING GIN (upper(description) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS IX_ITEMS_POINTERS_EXPIRE_AT ON items (pointers_expire_at);
+CREATE INDEX IF NOT EXISTS IX_ITEMS_OWNER ON items (owner_id, id);
+CREATE INDEX IF NOT EXISTS IX_ITEMS_REQUEST ON items (request_id);
+
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS bookings(
+    id BIGINT DEFAULT nextval('bookings_seq') PRIMARY KEY,
+    start_date TIMESTAMP WITH TIME ZONE NOT NULL,
+    end_date TIMESTAMP WITH TIME ZONE NOT NULL,
+    item_id BIGINT REFERENCES items(id),
+    booker_id BIGINT REFERENCES users(id),
+    status VARCHAR(10),
+    version BIGINT NOT NULL DEFAULT 0,
+    period TSTZRANGE GENERATED ALWAYS AS (tstzrange(start_date, end_date)) STORED,
+    CONSTRAINT EX_BOOKINGS_ITEM_PERIOD EXCLUDE USING gist (
+        item_id WITH =,
+        tstzrange(start_date, end_date) WITH &&
+    ) WHERE (status IN ('WAITING', 'APPROVED'))
+);
+
+CREATE INDEX IF NOT EXISTS IX_BOOKINGS_ITEM_END ON bookings (item_id, end_date);
+CREATE INDEX IF NOT EXISTS IX_BOOKINGS_BOOKER_START ON bookings (booker_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS IX_BOOKINGS_BOOKER_STATUS_START ON bookings (booker_id, status, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS IX_BOOKINGS_ITEM_START ON bookings (item_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS IX_BOOKINGS_ITEM_STATUS_START ON bookings (item_id, status, start_date);
+CREATE INDEX IF NOT EXISTS IX_BOOKINGS_STATUS_START ON bookings (status, start_date);
+CREATE INDEX IF NOT EXISTS IX_BOOKINGS_STATUS_END ON bookings (status, end_date);
+
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS period TSTZRANGE
+    GENERATED ALWAYS AS (tstzrange(start_date, end_date)) STORED;
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+CREATE INDEX IF NOT EXISTS IX_BOOKINGS_BOOKER_PERIOD ON bookings USING gist (booker_id, period);
+CREATE INDEX IF NOT EXISTS IX_BOOKINGS_ITEM_PERIOD ON bookings USING gist (item_id, period);
+
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS comments(
+    id BIGINT DEFAULT nextval('comments_seq') PRIMARY KEY,
+    text VARCHAR(255) NOT NULL,
+    item_id BIGINT REFERENCES items(id),
+    author_id BIGINT REFERENCES users(id),
+    created TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS IX_COMMENTS_ITEM ON comments (item_id);
+
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE users ALTER COLUMN id SET DEFAULT nextval('users_seq');
+SELECT setval('users_seq', GREATEST((SELECT last_value FROM users_seq), (SELECT COALESCE(MAX(id), 1) FROM users)));
+
+ALTER TABLE requests ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE requests ALTER COLUMN id SET DEFAULT nextval('requests_seq');
+SELECT setval('requests_seq', GREATEST((SELECT last_value FROM requests_seq), (SELECT COALESCE(MAX(id), 1) FROM requests)));
+
+ALTER TABLE items ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE items ALTER COLUMN id SET DEFAULT nextval('items_seq');
+SELECT setval('items_seq', GREATEST((SELECT last_value FROM items_seq), (SELECT COALESCE(MAX(id), 1) FROM items)));
+
+ALTER TABLE bookings ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE bookings ALTER COLUMN id SET DEFAULT nextval('bookings_seq');
+SELECT setval('bookings_seq', GREATEST((SELECT last_value FROM bookings_seq), (SELECT COALESCE(MAX(id), 1) FROM bookings)));
+
+ALTER TABLE comments ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE comments ALTER COLUMN id SET DEFAULT nextval('comments_seq');
+SELECT setval('comments_seq', GREATEST((SELECT last_value FROM comments_seq), (SELECT COALESCE(MAX(id), 1) FROM comments)));
@@ -0,0 +1,39 @@
+CREATE TABLE IF NOT EXISTS users(
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    CONSTRAINT UQ_USER_EMAIL UNIQUE (email)
+);
+
+CREATE TABLE IF NOT EXISTS requests(
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    description VARCHAR(255) NOT NULL,
+    requester_id BIGINT REFERENCES users(id),
+    created TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS items(
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(50) NOT NULL,
+    description VARCHAR(255) NOT NULL,
+    is_available BOOLEAN NOT NULL,
+    owner_id BIGINT REFERENCES users(id) NOT NULL,
+    request_id BIGINT REFERENCES requests(id)
+);
+
+CREATE TABLE IF NOT EXISTS bookings(
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    start_date TIMESTAMP WITH TIME ZONE NOT NULL,
+    end_date TIMESTAMP WITH TIME ZONE NOT NULL,
+    item_id BIGINT REFERENCES items(id),
+    booker_id BIGINT REFERENCES users(id),
+    status VARCHAR(10)
+);
+
+CREATE TABLE IF NOT EXISTS comments(
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    text VARCHAR(255) NOT NULL,
+    item_id BIGINT REFERENCES items(id),
+    author_id BIGINT REFERENCES users(id),
+    created TIMESTAMP WITH TIME ZONE NOT NULL
+);